@@ -0,0 +1,20 @@
+package com.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Entry point of benchmarks.jar.
+ * <p>
+ * Delegates to the JMH launcher. Without arguments it runs every benchmark and writes
+ * machine-readable results to {@code jmh-result.json} so runs can be diffed or charted;
+ * with arguments, JMH options are passed through unchanged (e.g. {@code -rf csv}, a regex filter).
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            args = new String[]{"-rf", "json", "-rff", "jmh-result.json"};
+        }
+        Main.main(args);
+    }
+}
@@ -0,0 +1,134 @@
+package com.benchmarks;
+
+import com.cachegateway.cache.BlockingProductStore;
+import com.cachegateway.cache.HotKeyTracker;
+import com.cachegateway.cache.NamespaceGenerations;
+import com.cachegateway.cache.NearCacheManager;
+import com.cachegateway.codec.BinaryProductCodec;
+import com.cachegateway.codec.JsonValueCodec;
+import com.cachegateway.codec.ValueCodecs;
+import com.cachegateway.metrics.CacheMetrics;
+import com.cachegateway.service.CacheService;
+import com.cachegateway.service.PendingRequestTable;
+import com.cachegateway.service.ProductFetchRequestGateway;
+import commonlibs.cache.config.CachePolicyProperties;
+import commonlibs.cache.policy.PolicyRegistry;
+import commonlibs.dto.ProductDTO;
+import commonlibs.kafka.messages.ProductFetchRequest;
+import commonlibs.kafka.messages.ProductFetchResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CacheService#getProductAsync} hit and miss paths against in-memory stand-ins.
+ * <p>
+ * Redis is a map ({@link InMemoryRedis}) and db-fetcher answers synchronously inside
+ * {@code sendRequest}, so the numbers are the gateway's own CPU cost per request: key building,
+ * policy lookup, codec, single-flight and pending-table bookkeeping. In the miss benchmark
+ * Redis discards writes, so every call misses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheServiceBenchmark {
+
+    private static final String NAMESPACE = "default";
+    private static final String ENTITY = "products";
+    private static final long KEY_SPACE = 10_000;
+
+    @Param({"json", "binary"})
+    public String valueCodec;
+
+    private CacheService hitService;
+    private CacheService missService;
+    private PendingRequestTable hitPending;
+    private PendingRequestTable missPending;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        long next;
+
+        long nextId() {
+            return next++ % KEY_SPACE;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        hitPending = pendingTable();
+        missPending = pendingTable();
+        hitService = cacheService(false, hitPending);
+        missService = cacheService(true, missPending);
+
+        // Warm the hit service so every key in the key space is cached
+        for (long id = 0; id < KEY_SPACE; id++) {
+            hitService.getProductAsync(NAMESPACE, ENTITY, id).join();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        hitPending.shutdown();
+        missPending.shutdown();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ProductDTO hit(Cursor cursor) {
+        return hitService.getProductAsync(NAMESPACE, ENTITY, cursor.nextId()).join();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ProductDTO miss(Cursor cursor) {
+        return missService.getProductAsync(NAMESPACE, ENTITY, cursor.nextId()).join();
+    }
+
+    private PendingRequestTable pendingTable() {
+        return Fixtures.pendingTable(new CacheMetrics(new SimpleMeterRegistry(), 0));
+    }
+
+    private CacheService cacheService(boolean discardWrites, PendingRequestTable pending) {
+        CachePolicyProperties properties = Fixtures.policies();
+        properties.getPolicies().values().forEach(config -> config.setValueCodec(valueCodec));
+
+        Map<String, byte[]> store = new ConcurrentHashMap<>();
+        InstantFetcher fetcher = new InstantFetcher();
+        CacheService service = new CacheService(
+                new BlockingProductStore(InMemoryRedis.template(store, discardWrites)),
+                new ValueCodecs(List.of(new JsonValueCodec(), new BinaryProductCodec()), properties),
+                new PolicyRegistry(properties),
+                fetcher,
+                pending,
+                new NearCacheManager(properties),
+                new NamespaceGenerations(InMemoryRedis.stringTemplate(), 1_000, 3_600_000),
+                Fixtures.idFilterDisabled(),
+                new HotKeyTracker(1_000, 16, 4_096, 0),
+                new CacheMetrics(new SimpleMeterRegistry(), 0));
+        fetcher.cacheService = service;
+        return service;
+    }
+
+    /** Stands in for Kafka + db-fetcher: answers every request immediately. */
+    private static final class InstantFetcher extends ProductFetchRequestGateway {
+        CacheService cacheService;
+
+        InstantFetcher() {
+            super(null, null, null, null, null);
+        }
+
+        @Override
+        public void sendRequest(ProductFetchRequest request) {
+            cacheService.completePendingRequest(new ProductFetchResponse(
+                    request.getCorrelationId(), Fixtures.product(request.getProductId())));
+        }
+    }
+}
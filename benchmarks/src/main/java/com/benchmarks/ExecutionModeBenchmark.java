@@ -0,0 +1,109 @@
+package com.benchmarks;
+
+import com.cachegateway.cache.CacheKeys;
+import com.cachegateway.cache.HotKeyTracker;
+import com.cachegateway.cache.NamespaceGenerations;
+import com.cachegateway.cache.NearCacheManager;
+import com.cachegateway.cache.ProductStore;
+import com.cachegateway.codec.BinaryProductCodec;
+import com.cachegateway.codec.JsonValueCodec;
+import com.cachegateway.codec.ValueCodecs;
+import com.cachegateway.metrics.CacheMetrics;
+import com.cachegateway.service.CacheService;
+import com.cachegateway.service.PendingRequestTable;
+import commonlibs.cache.config.CachePolicyProperties;
+import commonlibs.cache.policy.PolicyRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache-hit concurrency at a fixed request-thread budget, per {@code gateway.execution-mode}.
+ * <p>
+ * Each operation is a burst of {@code concurrency} simultaneous hits dispatched onto a pool of
+ * {@code requestThreads} threads (the Tomcat worker budget) against a Redis with a fixed
+ * round-trip time. In blocking mode a thread is held for the whole round-trip, so a burst takes
+ * about {@code concurrency / requestThreads} round-trips; in reactive mode threads are released
+ * immediately and the burst takes about one round-trip.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionModeBenchmark {
+
+    private static final String NAMESPACE = "default";
+    private static final String ENTITY = "products";
+
+    @Param({"blocking", "reactive"})
+    public String mode;
+
+    @Param({"8"})
+    public int requestThreads;
+
+    @Param({"64", "256"})
+    public int concurrency;
+
+    @Param({"500"})
+    public int redisLatencyMicros;
+
+    private ExecutorService requestPool;
+    private ScheduledExecutorService eventLoop;
+    private PendingRequestTable pending;
+    private CacheService service;
+
+    @Setup
+    public void setUp() {
+        requestPool = Executors.newFixedThreadPool(requestThreads);
+        eventLoop = "reactive".equals(mode) ? Executors.newSingleThreadScheduledExecutor() : null;
+
+        CachePolicyProperties properties = Fixtures.policies();
+        properties.getPolicies().values().forEach(config -> config.setValueCodec(BinaryProductCodec.NAME));
+        ValueCodecs codecs = new ValueCodecs(List.of(new JsonValueCodec(), new BinaryProductCodec()), properties);
+        NamespaceGenerations generations = new NamespaceGenerations(InMemoryRedis.stringTemplate(), 1_000, 3_600_000);
+
+        // Pre-populate so that every lookup is a Redis hit
+        Map<String, byte[]> data = new ConcurrentHashMap<>();
+        for (long id = 0; id < concurrency; id++) {
+            data.put(CacheKeys.build(NAMESPACE, generations.current(NAMESPACE), ENTITY, id),
+                    codecs.encode(NAMESPACE, Fixtures.product(id)));
+        }
+        ProductStore store = new SimulatedLatencyStore(data, Duration.ofNanos(redisLatencyMicros * 1_000L), eventLoop);
+
+        pending = Fixtures.pendingTable(new CacheMetrics(new SimpleMeterRegistry(), 0));
+        service = new CacheService(store, codecs, new PolicyRegistry(properties), null, pending,
+                new NearCacheManager(properties), generations, Fixtures.idFilterDisabled(), new HotKeyTracker(1_000, 16, 4_096, 0),
+                new CacheMetrics(new SimpleMeterRegistry(), 0));
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestPool.shutdownNow();
+        if (eventLoop != null) eventLoop.shutdownNow();
+        pending.shutdown();
+    }
+
+    @Benchmark
+    public void burst() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            long id = i;
+            responses[i] = CompletableFuture
+                    .supplyAsync(() -> service.getProductAsync(NAMESPACE, ENTITY, id), requestPool)
+                    .thenCompose(Function.identity());
+        }
+        CompletableFuture.allOf(responses).join();
+    }
+}
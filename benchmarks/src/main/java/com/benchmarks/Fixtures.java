@@ -0,0 +1,57 @@
+package com.benchmarks;
+
+import com.cachegateway.cache.ProductIdFilter;
+import com.cachegateway.metrics.CacheMetrics;
+import com.cachegateway.service.FetchLimiter;
+import com.cachegateway.service.PendingRequestTable;
+import commonlibs.cache.config.CachePolicyProperties;
+import commonlibs.cache.policy.ConsistencyMode;
+import commonlibs.dto.ProductDTO;
+
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+
+/**
+ * Shared test data for the benchmarks.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static ProductDTO product(long id) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("Wireless Mouse " + id);
+        product.setDescription("Ergonomic 2.4GHz wireless mouse with USB receiver");
+        product.setPrice(new BigDecimal("24.99"));
+        return product;
+    }
+
+    /** ID filter that lets every ID through, as with {@code gateway.id-filter.enabled=false}. */
+    static ProductIdFilter idFilterDisabled() {
+        return new ProductIdFilter(RestClient.builder(), "http://localhost:8082", false, 60_000);
+    }
+
+    /** Pending table without the adaptive limit, as with {@code gateway.limiter.enabled=false}. */
+    static PendingRequestTable pendingTable(CacheMetrics metrics) {
+        FetchLimiter limiter = new FetchLimiter(metrics, false, 100, 10, 2_000, 0.2, 20, 5_000, 5);
+        return new PendingRequestTable(metrics, limiter, 100_000, 10, 512);
+    }
+
+    /** Same shape as config-repo/cache-gateway.yml: a default policy plus one tenant. */
+    static CachePolicyProperties policies() {
+        CachePolicyProperties properties = new CachePolicyProperties();
+        properties.getPolicies().put("default", policy(60, ConsistencyMode.ASIDE));
+        properties.getPolicies().put("tenant42", policy(120, ConsistencyMode.READ_THROUGH));
+        return properties;
+    }
+
+    private static CachePolicyProperties.PolicyConfig policy(long ttl, ConsistencyMode mode) {
+        CachePolicyProperties.PolicyConfig config = new CachePolicyProperties.PolicyConfig();
+        config.setTtl(ttl);
+        config.setConsistency(mode);
+        return config;
+    }
+}
@@ -0,0 +1,106 @@
+package com.benchmarks;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis stand-ins backed by a map, so gateway code paths can be measured without a server.
+ * <p>
+ * Only the operations the gateway uses are supported: get, set, setIfPresent, multiGet,
+ * increment, unlink, and sorted set add/rangeByScore/removeRangeByScore.
+ */
+final class InMemoryRedis {
+
+    private InMemoryRedis() {
+    }
+
+    /**
+     * @param discardWrites drop every write, so that lookups keep missing
+     */
+    static <V> RedisTemplate<String, V> template(Map<String, V> store, boolean discardWrites) {
+        ValueOperations<String, V> ops = valueOperations(store, discardWrites);
+        return new RedisTemplate<>() {
+            @Override
+            public ValueOperations<String, V> opsForValue() {
+                return ops;
+            }
+
+            @Override
+            public Boolean unlink(String key) {
+                return !discardWrites && store.remove(key) != null;
+            }
+        };
+    }
+
+    static StringRedisTemplate stringTemplate() {
+        ValueOperations<String, String> ops = valueOperations(new ConcurrentHashMap<>(), false);
+        ZSetOperations<String, String> zSetOps = zSetOperations(new ConcurrentHashMap<>());
+        return new StringRedisTemplate() {
+            @Override
+            public ValueOperations<String, String> opsForValue() {
+                return ops;
+            }
+
+            @Override
+            public ZSetOperations<String, String> opsForZSet() {
+                return zSetOps;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> ValueOperations<String, V> valueOperations(Map<String, V> store, boolean discardWrites) {
+        return (ValueOperations<String, V>) Proxy.newProxyInstance(
+                InMemoryRedis.class.getClassLoader(),
+                new Class<?>[]{ValueOperations.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "get" -> store.get(args[0]);
+                    case "multiGet" -> ((Collection<String>) args[0]).stream().map(store::get).toList();
+                    case "set", "setIfAbsent" -> {
+                        if (!discardWrites) store.put((String) args[0], (V) args[1]);
+                        yield method.getReturnType() == Boolean.class ? Boolean.TRUE : null;
+                    }
+                    case "setIfPresent" -> !discardWrites && store.replace((String) args[0], (V) args[1]) != null;
+                    case "increment" -> {
+                        long next = Long.parseLong(String.valueOf(store.getOrDefault(args[0], (V) "0"))) + 1;
+                        store.put((String) args[0], (V) String.valueOf(next));
+                        yield next;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ZSetOperations<String, String> zSetOperations(Map<String, Map<String, Double>> sets) {
+        return (ZSetOperations<String, String>) Proxy.newProxyInstance(
+                InMemoryRedis.class.getClassLoader(),
+                new Class<?>[]{ZSetOperations.class},
+                (proxy, method, args) -> {
+                    Map<String, Double> set = sets.computeIfAbsent((String) args[0], k -> new ConcurrentHashMap<>());
+                    return switch (method.getName()) {
+                        case "add" -> set.put((String) args[1], (Double) args[2]) == null;
+                        case "rangeByScore" -> set.entrySet().stream()
+                                .filter(e -> e.getValue() >= (Double) args[1] && e.getValue() <= (Double) args[2])
+                                .map(Map.Entry::getKey)
+                                .collect(Collectors.toUnmodifiableSet());
+                        case "removeRangeByScore" -> {
+                            long removed = 0;
+                            for (Map.Entry<String, Double> e : set.entrySet()) {
+                                if (e.getValue() >= (Double) args[1] && e.getValue() <= (Double) args[2]
+                                        && set.remove(e.getKey(), e.getValue())) removed++;
+                            }
+                            yield removed;
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+}
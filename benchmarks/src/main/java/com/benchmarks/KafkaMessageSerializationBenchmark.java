@@ -0,0 +1,89 @@
+package com.benchmarks;
+
+import commonlibs.kafka.config.KafkaCommonConfig;
+import commonlibs.kafka.messages.ProductFetchRequest;
+import commonlibs.kafka.messages.ProductFetchResponse;
+import commonlibs.kafka.codec.FetchMessageSerializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafka (de)serialization of fetch messages, configured exactly as {@link KafkaCommonConfig}
+ * configures producers and consumers, with the topic written as JSON or in binary form
+ * ({@code spring.kafka.binary-topics}). Message sizes are printed at the end of each trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KafkaMessageSerializationBenchmark {
+
+    private static final String TOPIC = "bench";
+
+    @Param({"json", "binary"})
+    public String format;
+
+    private FetchMessageSerializer<Object> serializer;
+    private Deserializer<ProductFetchRequest> requestDeserializer;
+    private Deserializer<ProductFetchResponse> responseDeserializer;
+    private ProductFetchRequest request;
+    private ProductFetchResponse response;
+    private byte[] requestBytes;
+    private byte[] responseBytes;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        KafkaCommonConfig config = new KafkaCommonConfig();
+        inject(config, "bootstrapServers", "localhost:9092");
+        inject(config, "trustedPackages", "commonlibs");
+        inject(config, "binaryTopics", "binary".equals(format) ? TOPIC : "");
+
+        // Factories never connect; they only provide the configured (de)serializers
+        serializer = new FetchMessageSerializer<>();
+        serializer.configure(config.jsonProducerFactory().getConfigurationProperties(), false);
+        requestDeserializer = config.jsonConsumerFactory(ProductFetchRequest.class, TOPIC).getValueDeserializer();
+        responseDeserializer = config.jsonConsumerFactory(ProductFetchResponse.class, TOPIC).getValueDeserializer();
+
+        request = new ProductFetchRequest(UUID.randomUUID().toString(), 123_456L);
+        response = new ProductFetchResponse(request.getCorrelationId(), Fixtures.product(123_456L));
+        requestBytes = serializer.serialize(TOPIC, request);
+        responseBytes = serializer.serialize(TOPIC, response);
+    }
+
+    @TearDown
+    public void reportSizes() {
+        System.out.printf("%n[%s] request=%d bytes, response=%d bytes%n", format, requestBytes.length, responseBytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializeRequest() {
+        return serializer.serialize(TOPIC, request);
+    }
+
+    @Benchmark
+    public ProductFetchRequest deserializeRequest() {
+        return requestDeserializer.deserialize(TOPIC, requestBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() {
+        return serializer.serialize(TOPIC, response);
+    }
+
+    @Benchmark
+    public ProductFetchResponse deserializeResponse() {
+        return responseDeserializer.deserialize(TOPIC, responseBytes);
+    }
+
+    private static void inject(Object target, String field, Object value) throws ReflectiveOperationException {
+        Field f = KafkaCommonConfig.class.getDeclaredField(field);
+        f.setAccessible(true);
+        f.set(target, value);
+    }
+}
@@ -0,0 +1,33 @@
+package com.benchmarks;
+
+import com.cachegateway.cache.CacheKeys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache key construction: the current {@link CacheKeys#build} against the original
+ * {@code String.format("%s:%s:%d", ...)} it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KeyBuildingBenchmark {
+
+    private final String namespace = "tenant42";
+    private final String entity = "products";
+    private long id = 123_456L;
+
+    @Benchmark
+    public String cacheKeys() {
+        return CacheKeys.build(namespace, 7, entity, id++);
+    }
+
+    @Benchmark
+    public String stringFormatBaseline() {
+        return String.format("%s:%s:%d", namespace, entity, id++);
+    }
+}
@@ -0,0 +1,38 @@
+package com.benchmarks;
+
+import commonlibs.cache.policy.Policy;
+import commonlibs.cache.policy.PolicyRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PolicyRegistry#getPolicy} for a configured namespace and for the fallback to "default".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PolicyRegistryBenchmark {
+
+    private PolicyRegistry registry;
+
+    @Setup
+    public void setUp() {
+        registry = new PolicyRegistry(Fixtures.policies());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Policy configuredNamespace() {
+        return registry.getPolicy("tenant42");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Policy fallbackToDefault() {
+        return registry.getPolicy("unknown-tenant");
+    }
+}
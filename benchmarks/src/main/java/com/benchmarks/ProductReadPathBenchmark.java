@@ -0,0 +1,124 @@
+package com.benchmarks;
+
+import com.dbfetcher.models.ProductEntity;
+import com.dbfetcher.repository.ProductJdbcReader;
+import com.dbfetcher.repository.ProductRepository;
+import com.dbfetcher.service.ProductQueryService;
+import commonlibs.dto.ProductDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * db-fetcher product reads per {@code fetcher.read-path}: JPA entities mapped to DTOs against plain
+ * JDBC into DTOs, for one ID and for a batch of {@value #BATCH} IDs. Scores are rows per second; run
+ * with {@code -prof gc} for the allocation rate ({@code gc.alloc.rate.norm} is bytes per row).
+ * <p>
+ * Needs the Postgres of {@code docker compose up} (or {@code -Dbench.db.url/user/password}); the
+ * {@code products} table is created and filled with {@value #ROWS} rows if it has fewer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductReadPathBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int BATCH = 100;
+
+    @Param({"jpa", "jdbc"})
+    public String readPath;
+
+    private ConfigurableApplicationContext context;
+    private ProductQueryService queryService;
+    private long[] ids;
+
+    /** The JPA and JDBC read beans of db-fetcher, without its Kafka listeners. */
+    @Configuration
+    @EnableAutoConfiguration(exclude = {KafkaAutoConfiguration.class, RedisAutoConfiguration.class,
+            RedisReactiveAutoConfiguration.class, RedisRepositoriesAutoConfiguration.class})
+    @EntityScan(basePackageClasses = ProductEntity.class)
+    @EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+    @Import(ProductJdbcReader.class)
+    static class ReadPathContext {
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ReadPathContext.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.cloud.config.enabled=false",
+                        "spring.cloud.config.import-check.enabled=false",
+                        "spring.datasource.url=" + System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5432/rediserve"),
+                        "spring.datasource.username=" + System.getProperty("bench.db.user", "rediserve"),
+                        "spring.datasource.password=" + System.getProperty("bench.db.password", "rediserve"),
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.jpa.open-in-view=false")
+                .run();
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        seed(jdbc);
+        ids = jdbc.queryForList("select id from products order by id limit " + ROWS, Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        queryService = new ProductQueryService(context.getBean(ProductRepository.class),
+                context.getBean(ProductJdbcReader.class), readPath);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductDTO findById() {
+        return queryService.findById(randomId());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Map<Long, ProductDTO> findAllById() {
+        List<Long> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(randomId());
+        }
+        return queryService.findAllById(batch);
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        Integer existing = jdbc.queryForObject("select count(*) from products", Integer.class);
+        int missing = ROWS - (existing != null ? existing : 0);
+        if (missing <= 0) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(missing);
+        for (int i = 0; i < missing; i++) {
+            rows.add(new Object[]{"Product " + i, "Benchmark product " + i, BigDecimal.valueOf(100 + i % 9_000, 2)});
+        }
+        jdbc.batchUpdate("insert into products (name, description, price) values (?, ?, ?)", rows);
+    }
+}
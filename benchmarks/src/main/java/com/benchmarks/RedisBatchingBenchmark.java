@@ -0,0 +1,84 @@
+package com.benchmarks;
+
+import com.cachegateway.cache.BatchingProductStore;
+import com.cachegateway.cache.ProductStore;
+import com.cachegateway.metrics.CacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-key Redis reads from many concurrent callers, per call vs micro-batched into MGETs
+ * ({@code gateway.redis.batching}).
+ * <p>
+ * The simulated Redis (reactive client) has a fixed round-trip time and serves commands one at a
+ * time, each costing {@code commandMicros} plus a little per key, so per-call GETs saturate it
+ * once enough callers are in flight while batches pay the command cost once. Throughput mode gives
+ * GETs per second, sample mode the per-GET latency distribution including the batching window.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class RedisBatchingBenchmark {
+
+    private static final int KEYS = 10_000;
+
+    /** Batching window in microseconds, or {@code off} for one GET per call. */
+    @Param({"off", "50", "200"})
+    public String window;
+
+    @Param({"64"})
+    public int maxBatch;
+
+    @Param({"500"})
+    public int redisLatencyMicros;
+
+    @Param({"5", "20"})
+    public int commandMicros;
+
+    private ScheduledExecutorService eventLoop;
+    private BatchingProductStore batchingStore;
+    private ProductStore store;
+
+    @Setup
+    public void setUp() {
+        Map<String, byte[]> data = new ConcurrentHashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            data.put(key(i), new byte[64]);
+        }
+        eventLoop = Executors.newSingleThreadScheduledExecutor();
+        store = new SimulatedLatencyStore(data, Duration.ofNanos(redisLatencyMicros * 1_000L), eventLoop,
+                Duration.ofNanos(commandMicros * 1_000L), Duration.ofNanos(200));
+        if (!"off".equals(window)) {
+            batchingStore = new BatchingProductStore(store, new CacheMetrics(new SimpleMeterRegistry(), 0),
+                    Long.parseLong(window), maxBatch, 2);
+            store = batchingStore;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (batchingStore != null) batchingStore.shutdown();
+        eventLoop.shutdownNow();
+    }
+
+    @Benchmark
+    public byte[] get() {
+        return store.get(key(ThreadLocalRandom.current().nextInt(KEYS))).join();
+    }
+
+    private static String key(int i) {
+        return "default:v1:products:" + i;
+    }
+}
@@ -0,0 +1,62 @@
+package com.benchmarks;
+
+import com.cachegateway.codec.BinaryProductCodec;
+import com.cachegateway.config.RedisConfiguration;
+import commonlibs.dto.ProductDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value encoding of a {@link ProductDTO}: the JSON serializer configured by
+ * {@link RedisConfiguration} against the binary codec.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RedisValueCodecBenchmark {
+
+    private RedisSerializer<Object> jsonSerializer;
+    private BinaryProductCodec binaryCodec;
+    private ProductDTO product;
+    private byte[] json;
+    private byte[] binary;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setUp() {
+        // The template never connects; it is only used to obtain the configured serializer
+        jsonSerializer = (RedisSerializer<Object>) new RedisConfiguration()
+                .redisTemplate(new LettuceConnectionFactory())
+                .getValueSerializer();
+        binaryCodec = new BinaryProductCodec();
+        product = Fixtures.product(123_456L);
+        json = jsonSerializer.serialize(product);
+        binary = binaryCodec.encode(product);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize(product);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return jsonSerializer.deserialize(json);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return binaryCodec.encode(product);
+    }
+
+    @Benchmark
+    public Object binaryDeserialize() {
+        return binaryCodec.decode(binary);
+    }
+}
@@ -0,0 +1,46 @@
+package com.benchmarks;
+
+import com.cachegateway.cache.CacheKeys;
+import com.cachegateway.cache.ConsistentHashRing;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cost of picking the Redis shard for a key ({@code gateway.redis.sharding}), which is added to every
+ * Redis command: hashing the key plus a binary search over {@code shards * virtualNodes} ring points.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShardRoutingBenchmark {
+
+    @Param({"4", "16"})
+    public int shards;
+
+    @Param({"256"})
+    public int virtualNodes;
+
+    private ConsistentHashRing<String> ring;
+    private long id;
+
+    @Setup
+    public void setUp() {
+        List<String> nodes = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            nodes.add("redis-" + i + ":6379");
+        }
+        ring = new ConsistentHashRing<>(nodes, Function.identity(), virtualNodes);
+    }
+
+    @Benchmark
+    public String nodeFor() {
+        return ring.nodeFor(CacheKeys.build("tenant42", 7, "products", id++));
+    }
+}
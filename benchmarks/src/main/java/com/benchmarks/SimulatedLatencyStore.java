@@ -0,0 +1,98 @@
+package com.benchmarks;
+
+import com.cachegateway.cache.ProductStore;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Map-backed {@link ProductStore} that adds a fixed Redis round-trip time.
+ * <p>
+ * In blocking mode the calling thread waits out the round-trip, like {@code RedisTemplate};
+ * in reactive mode the future is completed later by a single "event loop" thread, like Lettuce.
+ * <p>
+ * Optionally every command also occupies a single-threaded "server" for a fixed time plus a
+ * per-key time, so that commands queue behind each other the way they do in Redis.
+ */
+final class SimulatedLatencyStore implements ProductStore {
+
+    private final Map<String, byte[]> data;
+    private final long latencyNanos;
+    private final ScheduledExecutorService eventLoop;
+    private final long commandNanos;
+    private final long perKeyNanos;
+    private final AtomicLong serverFreeAt = new AtomicLong();
+
+    /**
+     * @param eventLoop null for blocking behaviour
+     */
+    SimulatedLatencyStore(Map<String, byte[]> data, Duration latency, ScheduledExecutorService eventLoop) {
+        this(data, latency, eventLoop, Duration.ZERO, Duration.ZERO);
+    }
+
+    /**
+     * @param commandCost server time of every command
+     * @param perKeyCost  additional server time per key read
+     */
+    SimulatedLatencyStore(Map<String, byte[]> data, Duration latency, ScheduledExecutorService eventLoop,
+                          Duration commandCost, Duration perKeyCost) {
+        this.data = data;
+        this.latencyNanos = latency.toNanos();
+        this.eventLoop = eventLoop;
+        this.commandNanos = commandCost.toNanos();
+        this.perKeyNanos = perKeyCost.toNanos();
+    }
+
+    @Override
+    public CompletableFuture<byte[]> get(String key) {
+        return respond(data.get(key), 1);
+    }
+
+    @Override
+    public CompletableFuture<List<byte[]>> multiGet(List<String> keys) {
+        return respond(keys.stream().map(data::get).toList(), keys.size());
+    }
+
+    @Override
+    public void set(String key, byte[] value, Duration ttl) {
+        data.put(key, value);
+    }
+
+    @Override
+    public void setIfPresent(String key, byte[] value, Duration ttl) {
+        data.replace(key, value);
+    }
+
+    @Override
+    public void delete(String key) {
+        data.remove(key);
+    }
+
+    private <T> CompletableFuture<T> respond(T value, int keys) {
+        long delayNanos = latencyNanos + queueAndServe(keys);
+        if (eventLoop == null) {
+            LockSupport.parkNanos(delayNanos);
+            return CompletableFuture.completedFuture(value);
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        eventLoop.schedule(() -> future.complete(value), delayNanos, TimeUnit.NANOSECONDS);
+        return future;
+    }
+
+    /** Reserves the server for one command and returns how long until it is done with it. */
+    private long queueAndServe(int keys) {
+        long cost = commandNanos + perKeyNanos * keys;
+        if (cost == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long done = serverFreeAt.accumulateAndGet(now, (freeAt, arrival) -> Math.max(freeAt, arrival) + cost);
+        return done - now;
+    }
+}
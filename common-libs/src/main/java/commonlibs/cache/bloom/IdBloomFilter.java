@@ -0,0 +1,113 @@
+package commonlibs.cache.bloom;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bloom filter over numeric entity IDs, built by db-fetcher and shipped to the gateways.
+ * <p>
+ * {@link #mightContain} never returns false for an ID that was added; it returns true for an
+ * absent ID with roughly the configured false-positive probability. The filter also records the
+ * highest ID it was built from, so readers can let newer IDs (created after the snapshot) through.
+ * <p>
+ * Wire format: magic(1) version(1) hashes(1) maxId(8) words(4) bits(8 * words), big-endian.
+ */
+public final class IdBloomFilter {
+
+    private static final byte MAGIC = (byte) 0xBF;
+    private static final byte VERSION_1 = 1;
+    private static final int HEADER = 1 + 1 + 1 + 8 + 4;
+
+    private final long[] bits;
+    private final int hashes;
+    private long maxId;
+
+    private IdBloomFilter(long[] bits, int hashes, long maxId) {
+        this.bits = bits;
+        this.hashes = hashes;
+        this.maxId = maxId;
+    }
+
+    /**
+     * Creates an empty filter sized for the expected number of IDs.
+     *
+     * @param expectedIds               number of IDs that will be added
+     * @param falsePositiveProbability  target rate of false positives, e.g. 0.01
+     */
+    public static IdBloomFilter create(long expectedIds, double falsePositiveProbability) {
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False-positive probability must be in (0, 1)");
+        }
+        long n = Math.max(1, expectedIds);
+        long bitCount = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bitCount + 63) >>> 6));
+        int hashes = (int) Math.max(1, Math.min(16, Math.round((double) words * 64 / n * Math.log(2))));
+        return new IdBloomFilter(new long[words], hashes, Long.MIN_VALUE);
+    }
+
+    /** Adds an ID. Not thread-safe; filters are built by a single thread and then published. */
+    public void put(long id) {
+        long h1 = mix(id);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        long bitSize = (long) bits.length << 6;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        maxId = Math.max(maxId, id);
+    }
+
+    public boolean mightContain(long id) {
+        long h1 = mix(id);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        long bitSize = (long) bits.length << 6;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Highest ID added, or {@link Long#MIN_VALUE} if the filter is empty. */
+    public long maxId() {
+        return maxId;
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + bits.length * 8);
+        buffer.put(MAGIC).put(VERSION_1).put((byte) hashes).putLong(maxId).putInt(bits.length);
+        for (long word : bits) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    public static IdBloomFilter fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER || bytes[0] != MAGIC || bytes[1] != VERSION_1) {
+            throw new IllegalArgumentException("Not an ID Bloom filter (version " + VERSION_1 + ")");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+        int hashes = buffer.get();
+        long maxId = buffer.getLong();
+        int words = buffer.getInt();
+        if (hashes <= 0 || words <= 0 || buffer.remaining() != words * 8L) {
+            throw new IllegalArgumentException("Truncated ID Bloom filter");
+        }
+        long[] bits = new long[words];
+        for (int i = 0; i < words; i++) {
+            bits[i] = buffer.getLong();
+        }
+        return new IdBloomFilter(bits, hashes, maxId);
+    }
+
+    /** 64-bit finalizer from MurmurHash3; spreads sequential IDs across the bit array. */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -17,10 +17,32 @@ public class CachePolicyProperties {
 
     private Map<String, PolicyConfig> policies = new HashMap<>();
 
+    /** Config for namespace or fallback to "default" (or built-in defaults if neither exists) */
+    public PolicyConfig resolve(String namespace) {
+        PolicyConfig config = policies.getOrDefault(namespace, policies.get("default"));
+        return config != null ? config : new PolicyConfig();
+    }
+
     @Getter
     @Setter
     public static class PolicyConfig {
         private long ttl;                        // in seconds
+        private long softTtl;                    // in seconds, serve stale + refresh after this (0 = off)
+        private long negativeTtl;                // in seconds, cache "not found" as a tombstone (0 = off)
+        private double ttlJitter;                // fraction, shorten each write's TTLs by up to this at random (0 = off)
+        private double earlyRefreshBeta;         // XFetch weight for refreshing ahead of expiry (0 = off, 1 = typical)
         private ConsistencyMode consistency = ConsistencyMode.ASIDE; // default
+        private long fetchTimeoutMs = 5_000;     // deadline for a DB fetch round-trip
+        private String valueCodec = "json";      // Redis value format for writes ("json" | "binary")
+        private NearCacheConfig nearCache = new NearCacheConfig();
+    }
+
+    /** Optional in-process (L1) cache in front of Redis */
+    @Getter
+    @Setter
+    public static class NearCacheConfig {
+        private boolean enabled = false;
+        private int maxEntries = 10_000;
+        private long ttl = 5;                    // in seconds, capped by the namespace policy TTL
     }
 }
@@ -1,6 +1,22 @@
 package commonlibs.cache.policy;
 
-public record Policy(long ttlSeconds, ConsistencyMode consistencyMode) {
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Caching policy of a namespace.
+ *
+ * @param ttlSeconds      hard TTL: how long a value may be served at all
+ * @param consistencyMode how the gateway populates the cache
+ * @param softTtlSeconds  how long a value counts as fresh; between the soft and the hard TTL it is
+ *                        served stale while one background refresh runs (0 = disabled)
+ * @param negativeTtlSeconds how long a "not found" answer is cached as a tombstone (0 = disabled)
+ * @param ttlJitter       each write shortens its TTLs by a random fraction up to this (0 = exact TTLs),
+ *                        so keys loaded together do not all expire in the same second
+ * @param earlyRefreshBeta XFetch weight: readers refresh a value ahead of its expiry with a probability
+ *                        that grows as expiry nears, scaled by how long the last fetch took (0 = disabled)
+ */
+public record Policy(long ttlSeconds, ConsistencyMode consistencyMode, long softTtlSeconds, long negativeTtlSeconds,
+                     double ttlJitter, double earlyRefreshBeta) {
     public Policy {
         if (consistencyMode == null) {
             throw new IllegalArgumentException("ConsistencyMode cannot be null");
@@ -8,5 +24,45 @@ public record Policy(long ttlSeconds, ConsistencyMode consistencyMode) {
         if (ttlSeconds < 0) {
             throw new IllegalArgumentException("TTL seconds cannot be negative");
         }
+        if (softTtlSeconds < 0 || negativeTtlSeconds < 0) {
+            throw new IllegalArgumentException("Soft and negative TTL seconds cannot be negative");
+        }
+        if (ttlJitter < 0 || ttlJitter >= 1) {
+            throw new IllegalArgumentException("TTL jitter must be in [0, 1)");
+        }
+        if (earlyRefreshBeta < 0) {
+            throw new IllegalArgumentException("Early refresh beta cannot be negative");
+        }
+    }
+
+    public Policy(long ttlSeconds, ConsistencyMode consistencyMode) {
+        this(ttlSeconds, consistencyMode, 0, 0);
+    }
+
+    public Policy(long ttlSeconds, ConsistencyMode consistencyMode, long softTtlSeconds, long negativeTtlSeconds) {
+        this(ttlSeconds, consistencyMode, softTtlSeconds, negativeTtlSeconds, 0, 0);
+    }
+
+    /** Whether stale-while-revalidate applies, i.e. the soft TTL ends before the hard TTL. */
+    public boolean hasSoftTtl() {
+        return softTtlSeconds > 0 && softTtlSeconds < ttlSeconds;
+    }
+
+    /** Seconds a value is served without triggering a refresh. */
+    public long freshSeconds() {
+        return hasSoftTtl() ? softTtlSeconds : ttlSeconds;
+    }
+
+    /** Whether readers may refresh values ahead of expiry (XFetch). */
+    public boolean hasEarlyRefresh() {
+        return earlyRefreshBeta > 0;
+    }
+
+    /**
+     * Random factor in {@code (1 - ttlJitter, 1]} to apply to the TTLs of one write.
+     * Jitter only ever shortens a TTL, so the configured values stay upper bounds.
+     */
+    public double jitterFactor() {
+        return ttlJitter > 0 ? 1 - ThreadLocalRandom.current().nextDouble() * ttlJitter : 1;
     }
 }
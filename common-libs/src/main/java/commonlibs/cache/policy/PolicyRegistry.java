@@ -1,48 +1,78 @@
 package commonlibs.cache.policy;
 
 import commonlibs.cache.config.CachePolicyProperties;
+import commonlibs.cache.policy.PolicySnapshot.NamespacePolicy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Cache policies per namespace, read on every cache lookup.
+ * <p>
+ * Holds one immutable {@link PolicySnapshot} that every change replaces atomically, so readers never
+ * take a lock and never see a partly applied reload. Configuration changes ({@code /actuator/refresh}
+ * rebinding {@code cache.policies}) and runtime updates each produce a new snapshot; runtime policies
+ * survive a configuration reload.
+ */
 @Component
-@RefreshScope
 @Slf4j
 public class PolicyRegistry {
 
-    private final Map<String, Policy> policies = new ConcurrentHashMap<>();
+    private final AtomicReference<PolicySnapshot> snapshot;
     private final CachePolicyProperties cachePolicyProperties;
 
     public PolicyRegistry(CachePolicyProperties cachePolicyProperties) {
         this.cachePolicyProperties = cachePolicyProperties;
-        reload();
+        this.snapshot = new AtomicReference<>(PolicySnapshot.of(cachePolicyProperties));
+        log.info("PolicyRegistry loaded: {}", snapshot.get());
     }
 
-    /** Reload policies from configuration */
+    /** Reload policies from configuration; runs after a refresh has rebound {@link CachePolicyProperties} */
+    @EventListener(RefreshScopeRefreshedEvent.class)
     public void reload() {
-        policies.clear();
-        cachePolicyProperties.getPolicies().forEach((ns, cfg) ->
-                policies.put(ns, new Policy(cfg.getTtl(), cfg.getConsistency()))
-        );
-        log.info("PolicyRegistry reloaded: {}", policies);
+        PolicySnapshot reloaded = snapshot.updateAndGet(current -> current.withConfiguration(cachePolicyProperties));
+        log.info("PolicyRegistry reloaded: {}", reloaded);
+    }
+
+    /** Current snapshot, for reading several values of one consistent version */
+    public PolicySnapshot snapshot() {
+        return snapshot.get();
     }
 
     /** Fetch policy for namespace or fallback to "default" */
     public Policy getPolicy(String namespace) {
-        return policies.getOrDefault(namespace, policies.get("default"));
+        return snapshot.get().policy(namespace);
+    }
+
+    /** Resolved policy and fetch timeout for namespace or fallback to "default" */
+    public NamespacePolicy resolve(String namespace) {
+        return snapshot.get().resolve(namespace);
     }
 
     /** Update a policy at runtime */
     public void updatePolicy(String namespace, Policy policy) {
         if (policy == null) throw new IllegalArgumentException("Policy cannot be null");
-        policies.put(namespace, policy);
+        snapshot.updateAndGet(current -> current.withRuntimePolicy(namespace, policy));
+    }
+
+    /** Drop the runtime policy of a namespace, returning it to its configured one */
+    public void removePolicy(String namespace) {
+        snapshot.updateAndGet(current -> current.withRuntimePolicy(namespace, null));
+    }
+
+    /** Replace every runtime policy at once, e.g. with the full state of cache.policy.updates */
+    public PolicySnapshot replaceRuntimePolicies(Map<String, Policy> policies) {
+        PolicySnapshot replaced = snapshot.updateAndGet(current -> current.withRuntimePolicies(policies));
+        log.info("PolicyRegistry runtime policies replaced: {}", replaced);
+        return replaced;
     }
 
-    /** Get all policies (read-only copy) */
+    /** Get all policies (read-only) */
     public Map<String, Policy> getAllPolicies() {
-        return Map.copyOf(policies);
+        return snapshot.get().policies();
     }
 }
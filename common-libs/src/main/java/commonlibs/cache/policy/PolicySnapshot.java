@@ -0,0 +1,121 @@
+package commonlibs.cache.policy;
+
+import commonlibs.cache.config.CachePolicyProperties;
+import commonlibs.cache.config.CachePolicyProperties.PolicyConfig;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of every namespace policy at one point in time, as published by {@link PolicyRegistry}.
+ * <p>
+ * Each namespace is resolved once, when the snapshot is built: runtime policies (from
+ * {@code cache.policy.updates}) take precedence over configured ones, and the fetch timeout always comes
+ * from configuration. Namespaces without an entry share the resolved "default" (or built-in defaults if
+ * neither configuration nor a runtime update defines one), so a lookup is one map read and never null.
+ * <p>
+ * Every change produces a new snapshot with a higher {@link #version()}.
+ */
+public final class PolicySnapshot {
+
+    /** What a namespace resolves to. */
+    public record NamespacePolicy(Policy policy, Duration fetchTimeout) {
+    }
+
+    private static final String DEFAULT = "default";
+
+    private final long version;
+    private final Map<String, NamespacePolicy> configured;
+    private final Map<String, Policy> runtime;
+    private final Map<String, NamespacePolicy> namespaces;
+    private final Map<String, Policy> policies;
+    private final NamespacePolicy fallback;
+
+    private PolicySnapshot(long version, Map<String, NamespacePolicy> configured, Map<String, Policy> runtime) {
+        this.version = version;
+        this.configured = configured;
+        this.runtime = runtime;
+
+        NamespacePolicy configuredDefault = configured.containsKey(DEFAULT)
+                ? configured.get(DEFAULT) : resolve(new PolicyConfig());
+        Map<String, NamespacePolicy> merged = new HashMap<>(configured);
+        runtime.forEach((namespace, policy) -> merged.put(namespace,
+                new NamespacePolicy(policy, configured.getOrDefault(namespace, configuredDefault).fetchTimeout())));
+        this.fallback = merged.getOrDefault(DEFAULT, configuredDefault);
+        this.namespaces = Map.copyOf(merged);
+
+        Map<String, Policy> policies = new HashMap<>();
+        merged.forEach((namespace, resolved) -> policies.put(namespace, resolved.policy()));
+        this.policies = Map.copyOf(policies);
+    }
+
+    /** Snapshot of the configured policies, without runtime updates. */
+    public static PolicySnapshot of(CachePolicyProperties properties) {
+        return new PolicySnapshot(1, configured(properties), Map.of());
+    }
+
+    /** This snapshot with the configuration replaced; runtime policies are kept. */
+    public PolicySnapshot withConfiguration(CachePolicyProperties properties) {
+        return new PolicySnapshot(version + 1, configured(properties), runtime);
+    }
+
+    /** This snapshot with the runtime policy of one namespace set, or removed when {@code policy} is null. */
+    public PolicySnapshot withRuntimePolicy(String namespace, Policy policy) {
+        Map<String, Policy> updated = new HashMap<>(runtime);
+        if (policy != null) {
+            updated.put(namespace, policy);
+        } else {
+            updated.remove(namespace);
+        }
+        return new PolicySnapshot(version + 1, configured, Map.copyOf(updated));
+    }
+
+    /** This snapshot with all runtime policies replaced. */
+    public PolicySnapshot withRuntimePolicies(Map<String, Policy> policies) {
+        return new PolicySnapshot(version + 1, configured, Map.copyOf(policies));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /** Resolved policy of the namespace, or of "default" if it has none. */
+    public NamespacePolicy resolve(String namespace) {
+        NamespacePolicy resolved = namespaces.get(namespace);
+        return resolved != null ? resolved : fallback;
+    }
+
+    /** Policy of the namespace, or of "default" if it has none. */
+    public Policy policy(String namespace) {
+        return resolve(namespace).policy();
+    }
+
+    /** Policy of every namespace with an entry of its own. */
+    public Map<String, Policy> policies() {
+        return policies;
+    }
+
+    /** Policies set at runtime, which override configuration. */
+    public Map<String, Policy> runtimePolicies() {
+        return runtime;
+    }
+
+    @Override
+    public String toString() {
+        return "v" + version + " " + policies;
+    }
+
+    private static Map<String, NamespacePolicy> configured(CachePolicyProperties properties) {
+        Map<String, NamespacePolicy> configured = new HashMap<>();
+        properties.getPolicies().forEach((namespace, config) -> configured.put(namespace, resolve(config)));
+        return Map.copyOf(configured);
+    }
+
+    private static NamespacePolicy resolve(PolicyConfig config) {
+        return new NamespacePolicy(
+                new Policy(config.getTtl(), config.getConsistency(), config.getSoftTtl(), config.getNegativeTtl(),
+                        config.getTtlJitter(), config.getEarlyRefreshBeta()),
+                Duration.ofMillis(config.getFetchTimeoutMs()));
+    }
+}
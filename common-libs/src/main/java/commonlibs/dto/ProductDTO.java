@@ -20,6 +20,9 @@ public class ProductDTO implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    /** Entity segment of the cache keys holding products, and of their change events */
+    public static final String ENTITY = "products";
+
     /** Unique identifier of the product */
     private Long id;
 
@@ -0,0 +1,377 @@
+package commonlibs.kafka.codec;
+
+import commonlibs.dto.ProductDTO;
+import commonlibs.kafka.messages.ProductBatchFetchRequest;
+import commonlibs.kafka.messages.ProductBatchFetchResponse;
+import commonlibs.kafka.messages.ProductFetchRequest;
+import commonlibs.kafka.messages.ProductFetchResponse;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Compact, versioned binary format for the db-fetcher request/response messages.
+ * <p>
+ * Layout (version 1):
+ * <pre>
+ * magic(1) version(1) type(1) correlationId [body]
+ * correlationId: kind(1) = 0 null | 1 UUID, 16 bytes | 2 varint length + UTF-8
+ * request:        [productId: presence(1) zigzag varlong]
+ * batch request:  ids
+ * response:       product
+ * batch response: ids, varint count+1 (0 = null) of product
+ * ids:            varint count+1 (0 = null), zigzag varlong each
+ * product:        flags(1) [id] [name] [description] [price], present only if its flag is set
+ * </pre>
+ * Correlation IDs in canonical UUID form take 16 bytes instead of a 36-character string.
+ * The magic byte can never start a JSON document, so readers accept both formats.
+ * A reader must keep decoding every version it ever wrote; new fields go into a new version.
+ */
+public final class BinaryFetchCodec {
+
+    static final byte MAGIC = (byte) 0xF1;
+    static final byte VERSION_1 = 1;
+
+    private static final byte TYPE_REQUEST = 1;
+    private static final byte TYPE_RESPONSE = 2;
+    private static final byte TYPE_BATCH_REQUEST = 3;
+    private static final byte TYPE_BATCH_RESPONSE = 4;
+
+    private static final byte ID_NULL = 0;
+    private static final byte ID_UUID = 1;
+    private static final byte ID_STRING = 2;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int HAS_DESCRIPTION = 1 << 2;
+    private static final int HAS_PRICE = 1 << 3;
+
+    private static final Set<Class<?>> SUPPORTED = Set.of(ProductFetchRequest.class, ProductFetchResponse.class,
+            ProductBatchFetchRequest.class, ProductBatchFetchResponse.class);
+
+    private BinaryFetchCodec() {
+    }
+
+    /** Whether messages of this type have a binary form. */
+    public static boolean supports(Class<?> type) {
+        return SUPPORTED.contains(type);
+    }
+
+    /** Whether the payload is in this binary format (as opposed to JSON). */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= 3 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(Object message) {
+        Writer out = new Writer();
+        out.put(MAGIC);
+        out.put(VERSION_1);
+        if (message instanceof ProductFetchRequest request) {
+            out.put(TYPE_REQUEST);
+            out.correlationId(request.getCorrelationId());
+            out.nullableLong(request.getProductId());
+        } else if (message instanceof ProductFetchResponse response) {
+            out.put(TYPE_RESPONSE);
+            out.correlationId(response.getCorrelationId());
+            out.product(response.getProduct());
+        } else if (message instanceof ProductBatchFetchRequest request) {
+            out.put(TYPE_BATCH_REQUEST);
+            out.correlationId(request.getCorrelationId());
+            out.ids(request.getProductIds());
+        } else if (message instanceof ProductBatchFetchResponse response) {
+            out.put(TYPE_BATCH_RESPONSE);
+            out.correlationId(response.getCorrelationId());
+            out.ids(response.getProductIds());
+            out.products(response.getProducts());
+        } else {
+            throw new SerializationException("No binary form for " + message.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    public static <T> T decode(byte[] data, Class<T> type) {
+        if (!isBinary(data)) {
+            throw new SerializationException("Not a binary fetch message");
+        }
+        Reader in = new Reader(data, 1);
+        byte version = in.get();
+        if (version != VERSION_1) {
+            throw new SerializationException("Unsupported binary fetch message version " + version);
+        }
+        byte messageType = in.get();
+        Object message = switch (messageType) {
+            case TYPE_REQUEST -> new ProductFetchRequest(in.correlationId(), in.nullableLong());
+            case TYPE_RESPONSE -> new ProductFetchResponse(in.correlationId(), in.product());
+            case TYPE_BATCH_REQUEST -> new ProductBatchFetchRequest(in.correlationId(), in.ids());
+            case TYPE_BATCH_RESPONSE -> new ProductBatchFetchResponse(in.correlationId(), in.ids(), in.products());
+            default -> throw new SerializationException("Unknown binary fetch message type " + messageType);
+        };
+        if (!type.isInstance(message)) {
+            throw new SerializationException("Expected " + type.getSimpleName()
+                    + " but got " + message.getClass().getSimpleName());
+        }
+        return type.cast(message);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /** Parses the canonical 36-character UUID form only, so the string round-trips unchanged. */
+    private static UUID parseCanonicalUuid(String value) {
+        if (value.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(value);
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static final class Writer {
+        byte[] buffer = new byte[64];
+        int position;
+
+        void put(byte b) {
+            ensure(1);
+            buffer[position++] = b;
+        }
+
+        void varLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void fixedLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void bytes(byte[] data) {
+            varLong(data.length);
+            ensure(data.length);
+            System.arraycopy(data, 0, buffer, position, data.length);
+            position += data.length;
+        }
+
+        void correlationId(String correlationId) {
+            if (correlationId == null) {
+                put(ID_NULL);
+                return;
+            }
+            UUID uuid = parseCanonicalUuid(correlationId);
+            if (uuid != null) {
+                put(ID_UUID);
+                fixedLong(uuid.getMostSignificantBits());
+                fixedLong(uuid.getLeastSignificantBits());
+            } else {
+                put(ID_STRING);
+                bytes(correlationId.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        void nullableLong(Long value) {
+            put((byte) (value != null ? 1 : 0));
+            if (value != null) varLong(zigzag(value));
+        }
+
+        void ids(List<Long> ids) {
+            if (ids == null) {
+                varLong(0);
+                return;
+            }
+            varLong(ids.size() + 1L);
+            for (Long id : ids) {
+                if (id == null) throw new SerializationException("Null product ID in batch");
+                varLong(zigzag(id));
+            }
+        }
+
+        void products(List<ProductDTO> products) {
+            if (products == null) {
+                varLong(0);
+                return;
+            }
+            varLong(products.size() + 1L);
+            for (ProductDTO product : products) {
+                product(product);
+            }
+        }
+
+        /** A null product is written as flags = 0x80. */
+        void product(ProductDTO product) {
+            if (product == null) {
+                put((byte) 0x80);
+                return;
+            }
+            int flags = 0;
+            if (product.getId() != null) flags |= HAS_ID;
+            if (product.getName() != null) flags |= HAS_NAME;
+            if (product.getDescription() != null) flags |= HAS_DESCRIPTION;
+            if (product.getPrice() != null) flags |= HAS_PRICE;
+            put((byte) flags);
+            if (product.getId() != null) varLong(zigzag(product.getId()));
+            if (product.getName() != null) bytes(product.getName().getBytes(StandardCharsets.UTF_8));
+            if (product.getDescription() != null) bytes(product.getDescription().getBytes(StandardCharsets.UTF_8));
+            if (product.getPrice() != null) {
+                varLong(zigzag(product.getPrice().scale()));
+                bytes(product.getPrice().unscaledValue().toByteArray());
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+        final byte[] buffer;
+        int position;
+
+        Reader(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        byte get() {
+            if (position >= buffer.length) throw new SerializationException("Truncated binary fetch message");
+            return buffer[position++];
+        }
+
+        long varLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = get();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+            throw new SerializationException("Malformed varint in binary fetch message");
+        }
+
+        long fixedLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (get() & 0xFF);
+            }
+            return value;
+        }
+
+        int length() {
+            long length = varLong();
+            if (length < 0 || length > buffer.length - position) {
+                throw new SerializationException("Truncated binary fetch message");
+            }
+            return (int) length;
+        }
+
+        byte[] bytes() {
+            int length = length();
+            byte[] data = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return data;
+        }
+
+        String string() {
+            int length = length();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        String correlationId() {
+            byte kind = get();
+            return switch (kind) {
+                case ID_NULL -> null;
+                case ID_UUID -> new UUID(fixedLong(), fixedLong()).toString();
+                case ID_STRING -> string();
+                default -> throw new SerializationException("Unknown correlation ID kind " + kind);
+            };
+        }
+
+        Long nullableLong() {
+            return get() != 0 ? unzigzag(varLong()) : null;
+        }
+
+        /** Element count stored as count + 1, so 0 means a null list. */
+        int count() {
+            long encoded = varLong();
+            if (encoded == 0) {
+                return -1;
+            }
+            // Every element takes at least one byte, which bounds the allocation
+            if (encoded - 1 > buffer.length - position) {
+                throw new SerializationException("Truncated binary fetch message");
+            }
+            return (int) (encoded - 1);
+        }
+
+        List<Long> ids() {
+            int count = count();
+            if (count < 0) {
+                return null;
+            }
+            List<Long> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(unzigzag(varLong()));
+            }
+            return ids;
+        }
+
+        List<ProductDTO> products() {
+            int count = count();
+            if (count < 0) {
+                return null;
+            }
+            List<ProductDTO> products = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                products.add(product());
+            }
+            return products;
+        }
+
+        ProductDTO product() {
+            int flags = get() & 0xFF;
+            if ((flags & 0x80) != 0) {
+                return null;
+            }
+            ProductDTO product = new ProductDTO();
+            if ((flags & HAS_ID) != 0) product.setId(unzigzag(varLong()));
+            if ((flags & HAS_NAME) != 0) product.setName(string());
+            if ((flags & HAS_DESCRIPTION) != 0) product.setDescription(string());
+            if ((flags & HAS_PRICE) != 0) {
+                int scale = (int) unzigzag(varLong());
+                byte[] unscaled = bytes();
+                if (unscaled.length == 0) {
+                    throw new SerializationException("Malformed price in binary fetch message: empty unscaled value");
+                }
+                product.setPrice(new BigDecimal(new BigInteger(unscaled), scale));
+            }
+            return product;
+        }
+    }
+}
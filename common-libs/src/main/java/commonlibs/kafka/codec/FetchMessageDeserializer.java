@@ -0,0 +1,56 @@
+package commonlibs.kafka.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Value deserializer that reads both {@link BinaryFetchCodec} payloads and JSON.
+ * <p>
+ * The format is told apart by the first byte, so consumers need no per-topic setting and keep
+ * reading messages written before a topic was switched to binary.
+ */
+public class FetchMessageDeserializer<T> implements Deserializer<T> {
+
+    private final Class<T> type;
+    private final boolean binarySupported;
+    private final JsonDeserializer<T> json;
+
+    /**
+     * @param type Class of the message payload; types without a binary form are always read as JSON
+     */
+    public FetchMessageDeserializer(Class<T> type) {
+        this.type = type;
+        this.binarySupported = BinaryFetchCodec.supports(type);
+        // The deserializer is bound to one payload class, so ignore producer type headers
+        this.json = new JsonDeserializer<>(type, false);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (binarySupported && BinaryFetchCodec.isBinary(data)) {
+            return BinaryFetchCodec.decode(data, type);
+        }
+        return json.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (binarySupported && BinaryFetchCodec.isBinary(data)) {
+            return BinaryFetchCodec.decode(data, type);
+        }
+        return json.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -0,0 +1,73 @@
+package commonlibs.kafka.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Value serializer that writes fetch messages in {@link BinaryFetchCodec} form on selected topics
+ * and everything else as JSON.
+ * <p>
+ * Topics are listed in the {@value #BINARY_TOPICS} property (comma-separated). An entry matches the
+ * topic itself and any topic below it, so {@code db.fetch.responses} also covers the per-instance
+ * reply topics {@code db.fetch.responses.<instance>}. Readers accept both formats
+ * ({@link FetchMessageDeserializer}), so a topic can be switched once all its consumers run this version.
+ */
+public class FetchMessageSerializer<T> implements Serializer<T> {
+
+    /** Producer property naming the topics written in binary form. */
+    public static final String BINARY_TOPICS = "commonlibs.kafka.binary-topics";
+
+    private final JsonSerializer<T> json = new JsonSerializer<>();
+    private Set<String> binaryTopics = Set.of();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+        Object topics = configs.get(BINARY_TOPICS);
+        if (topics != null) {
+            binaryTopics = Arrays.stream(topics.toString().split(","))
+                    .map(String::trim)
+                    .filter(topic -> !topic.isEmpty())
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        if (data != null && isBinary(topic) && BinaryFetchCodec.supports(data.getClass())) {
+            return BinaryFetchCodec.encode(data);
+        }
+        return json.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        if (data != null && isBinary(topic) && BinaryFetchCodec.supports(data.getClass())) {
+            return BinaryFetchCodec.encode(data);
+        }
+        return json.serialize(topic, headers, data);
+    }
+
+    private boolean isBinary(String topic) {
+        if (binaryTopics.isEmpty() || topic == null) {
+            return false;
+        }
+        for (int dot = topic.length(); dot > 0; dot = topic.lastIndexOf('.', dot - 1)) {
+            if (binaryTopics.contains(topic.substring(0, dot))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -1,11 +1,15 @@
 package commonlibs.kafka.config;
 
+import commonlibs.kafka.codec.FetchMessageDeserializer;
+import commonlibs.kafka.codec.FetchMessageSerializer;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
@@ -20,6 +24,8 @@ import java.util.Map;
  * <p>
  * <ul>
  *     <li>Supports both JSON and String payloads.</li>
+ *     <li>Fetch messages can use a compact binary form on the topics listed in {@code spring.kafka.binary-topics};
+ *     consumers read either form.</li>
  *     <li>Fully configurable via application.yml (bootstrap servers and trusted packages).</li>
  *     <li>Meant to be extended or used as a base helper in microservices to reduce boilerplate.</li>
  * </ul>
@@ -34,6 +40,10 @@ public class KafkaCommonConfig {
     @Value("${spring.kafka.trusted-packages}")
     private String trustedPackages;
 
+    /** Topics on which fetch messages are written in binary form (comma-separated; empty = JSON everywhere) */
+    @Value("${spring.kafka.binary-topics:}")
+    private String binaryTopics;
+
     // --------------------------------------
     // JSON Consumer / Listener Helpers
     // --------------------------------------
@@ -45,14 +55,27 @@ public class KafkaCommonConfig {
      * @param groupId Kafka consumer group ID
      */
     public <T> ConsumerFactory<String, T> jsonConsumerFactory(Class<T> clazz, String groupId) {
+        return jsonConsumerFactory(clazz, groupId, Map.of());
+    }
+
+    /**
+     * Create a JSON consumer factory with additional consumer properties.
+     *
+     * @param clazz     Class of the message payload
+     * @param groupId   Kafka consumer group ID
+     * @param overrides Extra {@link ConsumerConfig} properties (e.g. poll sizing)
+     */
+    public <T> ConsumerFactory<String, T> jsonConsumerFactory(Class<T> clazz, String groupId,
+                                                             Map<String, Object> overrides) {
         // Configure props
-        Map<String, Object> props = new HashMap<>();
+        Map<String, Object> props = new HashMap<>(overrides);
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, trustedPackages);
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new JsonDeserializer<>(clazz));
+        // Reads JSON and, for fetch messages, the binary form; bound to one payload class
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new FetchMessageDeserializer<>(clazz));
     }
 
     /**
@@ -64,6 +87,33 @@ public class KafkaCommonConfig {
         return factory;
     }
 
+    /**
+     * Create a batch listener container factory for JSON payloads.
+     * <p>
+     * Listeners receive a whole poll as a {@code List<T>}. The broker holds a fetch for up to
+     * {@code fetchMaxWaitMs} until {@code fetchMinBytes} are available, which trades a few
+     * milliseconds of latency for larger batches.
+     *
+     * @param clazz          Class of the message payload
+     * @param groupId        Kafka consumer group ID
+     * @param maxPollRecords Upper bound of records per batch
+     * @param fetchMaxWaitMs Maximum time the broker waits to fill a fetch
+     * @param fetchMinBytes  Bytes the broker tries to accumulate before answering a fetch
+     */
+    public <T> ConcurrentKafkaListenerContainerFactory<String, T> jsonBatchListenerFactory(Class<T> clazz, String groupId,
+                                                                                         int maxPollRecords,
+                                                                                         int fetchMaxWaitMs,
+                                                                                         int fetchMinBytes) {
+        Map<String, Object> overrides = Map.of(
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords,
+                ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs,
+                ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        ConcurrentKafkaListenerContainerFactory<String, T> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(jsonConsumerFactory(clazz, groupId, overrides));
+        factory.setBatchListener(true);
+        return factory;
+    }
+
     // --------------------------------------
     // String Consumer / Listener Helpers
     // --------------------------------------
@@ -87,12 +137,19 @@ public class KafkaCommonConfig {
     // JSON Producer / KafkaTemplate Helpers
     // --------------------------------------
 
+    /**
+     * Create a producer factory for JSON payloads.
+     * <p>
+     * Fetch messages sent to a topic listed in {@code spring.kafka.binary-topics} are written in
+     * binary form instead; see {@link FetchMessageSerializer}.
+     */
     public <T> ProducerFactory<String, T> jsonProducerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, FetchMessageSerializer.class);
         props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false); // optional: prevents type headers
+        props.put(FetchMessageSerializer.BINARY_TOPICS, binaryTopics != null ? binaryTopics : "");
         return new DefaultKafkaProducerFactory<>(props);
     }
 
@@ -115,4 +172,19 @@ public class KafkaCommonConfig {
     public KafkaTemplate<String, String> stringKafkaTemplate() {
         return new KafkaTemplate<>(stringProducerFactory());
     }
-}
\ No newline at end of file
+
+    // --------------------------------------
+    // Topic Helpers
+    // --------------------------------------
+
+    /**
+     * The "cache.policy.updates" topic. It is compacted, so it keeps the latest runtime policy of every
+     * namespace (a null value removes one) and a starting gateway can read the full state from it.
+     */
+    public NewTopic policyUpdatesTopic() {
+        return TopicBuilder.name("cache.policy.updates")
+                .partitions(1)
+                .compact()
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package commonlibs.kafka.messages;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Kafka message used to request several Products from the DB-Fetcher service at once.
+ * <p>
+ * One correlationId covers the whole batch; the DB-Fetcher answers with a single
+ * {@link ProductBatchFetchResponse} carrying the same correlationId.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchFetchRequest implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** Unique identifier to correlate request and response */
+    private String correlationId;
+
+    /** IDs of the products being requested */
+    private List<Long> productIds;
+}
@@ -0,0 +1,34 @@
+package commonlibs.kafka.messages;
+
+import commonlibs.dto.ProductDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Kafka message used to respond to a ProductBatchFetchRequest.
+ * <p>
+ * {@code products} is aligned with {@code productIds}: the product at index i belongs to
+ * the ID at index i, and is null if that product does not exist.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchFetchResponse implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** Correlation ID to match the response with the original request */
+    private String correlationId;
+
+    /** The requested product IDs, in request order */
+    private List<Long> productIds;
+
+    /** The fetched products, aligned with productIds (null = not found) */
+    private List<ProductDTO> products;
+}
@@ -0,0 +1,40 @@
+package commonlibs.kafka.messages;
+
+import commonlibs.dto.ProductDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Kafka message published by db-fetcher after a product row was written.
+ * <p>
+ * Keyed by product ID on "db.product.changes", so changes of one product stay in order.
+ * Gateways overwrite (UPSERT) or delete (DELETE) the cached copies of that product.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeEvent implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        UPSERT,
+        DELETE
+    }
+
+    /** Entity segment of the cache key (e.g. "products") */
+    private String entity;
+
+    /** ID of the changed product */
+    private Long productId;
+
+    private Type type;
+
+    /** New state for UPSERT, null for DELETE */
+    private ProductDTO product;
+}
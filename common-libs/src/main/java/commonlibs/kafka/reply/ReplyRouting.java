@@ -0,0 +1,49 @@
+package commonlibs.kafka.reply;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request-reply routing over Kafka headers.
+ * <p>
+ * A requester advertises where it consumes replies with the standard Spring Kafka
+ * {@link KafkaHeaders#REPLY_TOPIC} header and, optionally, {@link KafkaHeaders#REPLY_PARTITION}
+ * (4-byte big-endian int). The responder sends its answer there; requests without the headers
+ * are answered on the responder's default topic.
+ */
+public final class ReplyRouting {
+
+    private ReplyRouting() {
+    }
+
+    /** Adds the reply topic header to an outgoing request. */
+    public static void setReplyTopic(Headers headers, String replyTopic) {
+        headers.remove(KafkaHeaders.REPLY_TOPIC);
+        headers.add(KafkaHeaders.REPLY_TOPIC, replyTopic.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds the reply record for a request.
+     *
+     * @param requestHeaders headers of the incoming request
+     * @param defaultTopic   topic used when the request names no reply topic
+     */
+    public static <V> ProducerRecord<String, V> reply(Headers requestHeaders, String defaultTopic, String key, V value) {
+        Header topicHeader = requestHeaders.lastHeader(KafkaHeaders.REPLY_TOPIC);
+        String topic = topicHeader != null
+                ? new String(topicHeader.value(), StandardCharsets.UTF_8)
+                : defaultTopic;
+
+        Header partitionHeader = requestHeaders.lastHeader(KafkaHeaders.REPLY_PARTITION);
+        Integer partition = partitionHeader != null && partitionHeader.value().length == Integer.BYTES
+                ? ByteBuffer.wrap(partitionHeader.value()).getInt()
+                : null;
+
+        return new ProducerRecord<>(topic, partition, key, value);
+    }
+}
@@ -0,0 +1,172 @@
+package com.cachegateway.cache;
+
+import com.cachegateway.metrics.CacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in {@link ProductStore} decorator that merges concurrent single-key reads into one MGET.
+ * <p>
+ * Each {@link #get} is queued; the first one of a window schedules a flush after
+ * {@code gateway.redis.batching.window-micros}, and a caller that fills the queue to
+ * {@code max-batch} flushes it right away on its own thread. A flush sends the queued keys
+ * (deduplicated) through the execution-mode store's {@link #multiGet} and completes every
+ * caller's future with its own value, or fails them all if the MGET fails. Everything else goes
+ * straight to the delegate.
+ * <p>
+ * This trades up to one window of latency per GET for one Redis command per batch instead of one
+ * per key, which pays off when many requests are in flight at once and Redis or the connection is
+ * the bottleneck. Under light traffic a GET simply waits out the window, so keep it small
+ * (tens to hundreds of microseconds).
+ * <p>
+ * In blocking mode timer flushes run on {@code flush-threads} dedicated threads, which wait for
+ * the MGET and run the callers' continuations; in reactive mode they only send the command.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "gateway.redis.batching.enabled", havingValue = "true")
+public class BatchingProductStore implements ProductStore {
+
+    private final ProductStore delegate;
+    private final CacheMetrics metrics;
+    private final long windowMicros;
+    private final int maxBatch;
+    private final Queue<PendingGet> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+
+    private record PendingGet(String key, CompletableFuture<byte[]> future) {
+    }
+
+    /**
+     * @param delegate the store selected by {@code gateway.execution-mode} (a bean is never injected into itself)
+     */
+    public BatchingProductStore(ProductStore delegate,
+                                CacheMetrics metrics,
+                                @Value("${gateway.redis.batching.window-micros:200}") long windowMicros,
+                                @Value("${gateway.redis.batching.max-batch:64}") int maxBatch,
+                                @Value("${gateway.redis.batching.flush-threads:2}") int flushThreads) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.windowMicros = Math.max(0, windowMicros);
+        this.maxBatch = Math.max(1, maxBatch);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.flusher = Executors.newScheduledThreadPool(Math.max(1, flushThreads), r -> {
+            Thread thread = new Thread(r, "redis-batch-flush-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Redis GET micro-batching enabled: window={}us maxBatch={} over {}",
+                this.windowMicros, this.maxBatch, delegate.getClass().getSimpleName());
+    }
+
+    @Override
+    public CompletableFuture<byte[]> get(String key) {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        queue.add(new PendingGet(key, future));
+        if (queued.incrementAndGet() >= maxBatch) {
+            flush();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            flusher.schedule(this::flushScheduled, windowMicros, TimeUnit.MICROSECONDS);
+        }
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<List<byte[]>> multiGet(List<String> keys) {
+        return delegate.multiGet(keys);
+    }
+
+    @Override
+    public void set(String key, byte[] value, Duration ttl) {
+        delegate.set(key, value, ttl);
+    }
+
+    @Override
+    public void setIfPresent(String key, byte[] value, Duration ttl) {
+        delegate.setIfPresent(key, value, ttl);
+    }
+
+    @Override
+    public void delete(String key) {
+        delegate.delete(key);
+    }
+
+    private void flushScheduled() {
+        // Cleared before draining: a GET queued from here on schedules the next window
+        flushScheduled.set(false);
+        flush();
+    }
+
+    /** Sends everything queued so far, in batches of at most {@code maxBatch} callers. */
+    private void flush() {
+        while (true) {
+            List<PendingGet> batch = new ArrayList<>(Math.min(maxBatch, Math.max(1, queued.get())));
+            PendingGet next;
+            while (batch.size() < maxBatch && (next = queue.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            queued.addAndGet(-batch.size());
+            send(batch);
+        }
+    }
+
+    private void send(List<PendingGet> batch) {
+        Map<String, List<CompletableFuture<byte[]>>> waiters = new LinkedHashMap<>();
+        for (PendingGet get : batch) {
+            waiters.computeIfAbsent(get.key(), k -> new ArrayList<>(1)).add(get.future());
+        }
+        List<String> keys = new ArrayList<>(waiters.keySet());
+        metrics.recordRedisBatch(batch.size(), keys.size());
+
+        CompletableFuture<List<byte[]>> values;
+        try {
+            values = delegate.multiGet(keys);
+        } catch (RuntimeException e) {
+            values = CompletableFuture.failedFuture(e);
+        }
+        values.whenComplete((result, ex) -> {
+            int i = 0;
+            for (List<CompletableFuture<byte[]>> futures : waiters.values()) {
+                byte[] value = ex == null && result != null ? result.get(i) : null;
+                for (CompletableFuture<byte[]> future : futures) {
+                    if (ex != null) {
+                        future.completeExceptionally(ex);
+                    } else {
+                        future.complete(value);
+                    }
+                }
+                i++;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+}
@@ -0,0 +1,64 @@
+package com.cachegateway.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link ProductStore} on the synchronous {@link RedisTemplate}: futures are already complete
+ * when returned, the calling thread having waited for the Redis round-trip. Write failures are
+ * logged and swallowed, as with {@link ReactiveProductStore}.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("'${gateway.execution-mode:blocking}' == 'blocking' and !${gateway.redis.sharding.enabled:false}")
+public class BlockingProductStore implements ProductStore {
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    public BlockingProductStore(RedisTemplate<String, byte[]> productRedisTemplate) {
+        this.redisTemplate = productRedisTemplate;
+    }
+
+    @Override
+    public CompletableFuture<byte[]> get(String key) {
+        return CompletableFuture.completedFuture(redisTemplate.opsForValue().get(key));
+    }
+
+    @Override
+    public CompletableFuture<List<byte[]>> multiGet(List<String> keys) {
+        return CompletableFuture.completedFuture(redisTemplate.opsForValue().multiGet(keys));
+    }
+
+    @Override
+    public void set(String key, byte[] value, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().set(key, value, ttl);
+        } catch (RuntimeException e) {
+            log.warn("Failed to store key={} in Redis", key, e);
+        }
+    }
+
+    @Override
+    public void setIfPresent(String key, byte[] value, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().setIfPresent(key, value, ttl);
+        } catch (RuntimeException e) {
+            log.warn("Failed to overwrite key={} in Redis", key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            redisTemplate.unlink(key);
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete key={} from Redis", key, e);
+        }
+    }
+}
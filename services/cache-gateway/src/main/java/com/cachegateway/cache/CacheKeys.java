@@ -0,0 +1,62 @@
+package com.cachegateway.cache;
+
+import commonlibs.dto.ProductDTO;
+
+/**
+ * Redis key layout of cached entities.
+ * <p>
+ * Keys look like {@code <namespace>:v<generation>:<entity>:<id>}; products are stored under
+ * {@link ProductDTO#ENTITY}, the entity that db-fetcher's change events name. Bumping the namespace
+ * generation makes every existing key of the namespace unreachable at once; old entries
+ * then age out through their TTL (or are removed by {@link NamespaceSweeper}).
+ */
+public final class CacheKeys {
+
+    private CacheKeys() {
+    }
+
+    public static String build(String namespace, long generation, String entity, Long id) {
+        return namespace + ":v" + generation + ':' + entity + ':' + id;
+    }
+
+    /** Prefix shared by every key of the namespace at the given generation. */
+    public static String generationPrefix(String namespace, long generation) {
+        return namespace + ":v" + generation + ':';
+    }
+
+    /**
+     * Generation encoded in a key of the namespace, or -1 if the key does not follow the layout.
+     */
+    public static long generationOf(String namespace, String key) {
+        int start = namespace.length() + 2;
+        if (!key.startsWith(namespace) || key.length() <= start
+                || key.charAt(namespace.length()) != ':' || key.charAt(namespace.length() + 1) != 'v') {
+            return -1;
+        }
+        int end = key.indexOf(':', start);
+        if (end <= start) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(key, start, end, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * SCAN pattern matching every key of the namespace, whatever its generation. Glob metacharacters
+     * in the namespace are escaped, so "a*" does not sweep the keys of "ab".
+     */
+    public static String namespacePattern(String namespace) {
+        StringBuilder pattern = new StringBuilder(namespace.length() + 4);
+        for (int i = 0; i < namespace.length(); i++) {
+            char c = namespace.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append(":*").toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.cachegateway.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable consistent-hash ring with virtual nodes.
+ * <p>
+ * Every node is placed on a 64-bit ring at {@code virtualNodes} points hashed from
+ * {@code "<name>#<i>"}, and a key belongs to the first point at or after its own hash. Because
+ * points depend only on node names, adding or removing a node moves only the keys of the points it
+ * gains or loses (about {@code 1/n} of them), and every gateway with the same node list routes
+ * every key the same way. More virtual nodes even out the share of each node.
+ * <p>
+ * Lookups are a binary search over a sorted array, without locks or allocation.
+ */
+public final class ConsistentHashRing<T> {
+
+    private final long[] points;
+    private final Object[] owners;
+    private final List<T> nodes;
+
+    /**
+     * @param nodes        ring members; names must be unique and stable across restarts (e.g. {@code host:port})
+     * @param name         name of a node
+     * @param virtualNodes points per node
+     */
+    public ConsistentHashRing(List<T> nodes, Function<T, String> name, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        int replicas = Math.max(1, virtualNodes);
+        long[][] entries = new long[nodes.size() * replicas][];
+        int n = 0;
+        for (int node = 0; node < nodes.size(); node++) {
+            String nodeName = name.apply(nodes.get(node));
+            for (int i = 0; i < replicas; i++) {
+                entries[n++] = new long[]{hash(nodeName + '#' + i), node};
+            }
+        }
+        // Ties (practically impossible) are broken by node order so every gateway agrees
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compareUnsigned(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        this.points = new long[entries.length];
+        this.owners = new Object[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            owners[i] = nodes.get((int) entries[i][1]);
+        }
+        this.nodes = List.copyOf(nodes);
+    }
+
+    /** Node that owns the key. */
+    @SuppressWarnings("unchecked")
+    public T nodeFor(String key) {
+        long hash = hash(key);
+        int low = 0;
+        int high = points.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(points[mid], hash) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return (T) owners[low == points.length ? 0 : low];
+    }
+
+    public List<T> nodes() {
+        return nodes;
+    }
+
+    /** Share of the ring owned by each node, for logging how evenly keys are spread. */
+    public Map<T, Double> ownership() {
+        double[] share = new double[nodes.size()];
+        for (int i = 0; i < points.length; i++) {
+            long previous = i == 0 ? points[points.length - 1] : points[i - 1];
+            long arc = points[i] - previous; // unsigned, wraps around the ring
+            share[nodes.indexOf(owners[i])] += (arc >= 0 ? arc : arc + 0x1p64) / 0x1p64;
+        }
+        Map<T, Double> result = new LinkedHashMap<>();
+        for (int i = 0; i < share.length; i++) {
+            result.put(nodes.get(i), share[i]);
+        }
+        return result;
+    }
+
+    /** FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 64-bit mixer. */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
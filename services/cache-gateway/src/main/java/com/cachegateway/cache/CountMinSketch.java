@@ -0,0 +1,70 @@
+package com.cachegateway.cache;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch shared by {@link FrequencySketch} and {@link HeavyHitters}.
+ * <p>
+ * A hash is mapped to one counter in each of {@value #DEPTH} rows; the estimate is the row minimum,
+ * so it may overcount but never undercounts. Counters saturate at {@code maxCount}, and
+ * {@link #halve()} ages them all. Callers spread their keys into the hash and decide when to age.
+ * <p>
+ * Updates are lock-free (CAS on an {@link AtomicIntegerArray}); a concurrent halving may lose a few
+ * increments, which is acceptable for an estimate.
+ */
+final class CountMinSketch {
+
+    private static final int DEPTH = 4;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final AtomicIntegerArray table;
+    private final int width;
+    private final int maxCount;
+
+    /**
+     * @param width    counters per row; rounded up to a power of two, at least 16
+     * @param maxCount value at which counters stop growing
+     */
+    CountMinSketch(int width, int maxCount) {
+        this.width = Integer.highestOneBit(Math.max(16, width) - 1) << 1;
+        this.maxCount = maxCount;
+        this.table = new AtomicIntegerArray(this.width * DEPTH);
+    }
+
+    /** Records one occurrence of the hash and returns its new estimate. */
+    int increment(int hash) {
+        int estimate = maxCount;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            int count;
+            do {
+                count = table.get(index);
+                if (count >= maxCount) break;
+            } while (!table.compareAndSet(index, count, count + 1));
+            estimate = Math.min(estimate, count >= maxCount ? count : count + 1);
+        }
+        return estimate;
+    }
+
+    /** Estimated number of occurrences of the hash since the last halvings. */
+    int estimate(int hash) {
+        int estimate = maxCount;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, table.get(indexOf(hash, row)));
+        }
+        return estimate;
+    }
+
+    /** Halves every counter so that stale counts fade out. */
+    void halve() {
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, table.get(i) >>> 1);
+        }
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * 0x9E3779B1;
+        h ^= h >>> 16;
+        return row * width + (h & (width - 1));
+    }
+}
@@ -0,0 +1,55 @@
+package com.cachegateway.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Approximate access-frequency counter (count-min sketch) with periodic aging.
+ * <p>
+ * Keys are counted in a {@link CountMinSketch}; the estimate is the minimum across rows.
+ * Counters saturate at {@value #MAX_COUNT} and are halved once the number of recorded
+ * accesses reaches the sample size, so old popularity decays over time.
+ */
+public class FrequencySketch {
+
+    private static final int MAX_COUNT = 15;
+    private static final int MAX_WIDTH = 1 << 20;
+
+    private final CountMinSketch sketch;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * @param expectedEntries number of distinct keys the sketch should tell apart
+     */
+    public FrequencySketch(int expectedEntries) {
+        int target = Math.min(Math.max(16, expectedEntries), MAX_WIDTH);
+        this.sketch = new CountMinSketch(target, MAX_COUNT);
+        this.sampleSize = 10 * target;
+    }
+
+    /** Records one access of the key. */
+    public void increment(Object key) {
+        sketch.increment(spread(key.hashCode()));
+        if (additions.incrementAndGet() >= sampleSize) {
+            reset();
+        }
+    }
+
+    /** Estimated number of recent accesses of the key (never underestimates before aging). */
+    public int frequency(Object key) {
+        return sketch.estimate(spread(key.hashCode()));
+    }
+
+    /** Halves every counter so that stale popularity fades out. */
+    private void reset() {
+        additions.set(sampleSize / 2);
+        sketch.halve();
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xED5AD4BB;
+        hash ^= hash >>> 11;
+        return hash;
+    }
+}
@@ -0,0 +1,115 @@
+package com.cachegateway.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Approximate top-K of the most frequent IDs in a stream, with decay.
+ * <p>
+ * Frequencies come from a {@link CountMinSketch} of {@code width} counters per row (the estimate may
+ * overcount but never undercounts). Candidates whose estimate
+ * exceeds the current floor are kept in a map of at most {@code 2k} entries; when it grows past that,
+ * one thread trims it back to exactly the {@code k} largest (ties broken by ID) and raises the floor to
+ * the k-th estimate, so a newcomer must beat it rather than tie it. Updates are
+ * lock-free: counters use atomic increments and at most one thread trims at a time while others
+ * carry on.
+ * <p>
+ * {@link #decay()} halves every counter and candidate, so popularity from long ago fades out.
+ */
+public class HeavyHitters {
+
+    private final int k;
+    private final CountMinSketch sketch;
+    private final Map<Long, Integer> candidates = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private volatile int floor;
+
+    /** An ID and its estimated (decayed) number of occurrences. */
+    public record Entry(long id, int estimate) {
+    }
+
+    /**
+     * @param k     number of heavy hitters to report
+     * @param width counters per sketch row; rounded up to a power of two
+     */
+    public HeavyHitters(int k, int width) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Top-K size must be positive");
+        }
+        this.k = k;
+        this.sketch = new CountMinSketch(width, Integer.MAX_VALUE);
+    }
+
+    /** Records one occurrence of the ID and returns its new estimate. */
+    public int add(long id) {
+        int estimate = sketch.increment(spread(id));
+        if (estimate > floor || candidates.containsKey(id)) {
+            candidates.put(id, estimate);
+            if (candidates.size() > 2 * k && trimming.compareAndSet(false, true)) {
+                try {
+                    trim();
+                } finally {
+                    trimming.set(false);
+                }
+            }
+        }
+        return estimate;
+    }
+
+    /** Estimated number of occurrences of the ID since the last decays. */
+    public int estimate(long id) {
+        return sketch.estimate(spread(id));
+    }
+
+    /** Whether the ID currently ranks among the top {@code k}. */
+    public boolean isHeavy(long id) {
+        Integer estimate = candidates.get(id);
+        return estimate != null && estimate >= floor;
+    }
+
+    /** Up to {@code limit} (at most {@code k}) heaviest IDs, largest estimate first. */
+    public List<Entry> top(int limit) {
+        List<Entry> ranked = ranked();
+        return ranked.subList(0, Math.min(ranked.size(), Math.min(limit, k)));
+    }
+
+    /** Whether no ID is currently tracked. */
+    public boolean isEmpty() {
+        return candidates.isEmpty();
+    }
+
+    /** Halves every counter, candidate and the admission floor; drops candidates that reach zero. */
+    public void decay() {
+        sketch.halve();
+        candidates.replaceAll((id, estimate) -> estimate >>> 1);
+        candidates.values().removeIf(estimate -> estimate == 0);
+        floor >>>= 1;
+    }
+
+    private List<Entry> ranked() {
+        List<Entry> entries = new ArrayList<>(candidates.size());
+        candidates.forEach((id, estimate) -> entries.add(new Entry(id, estimate)));
+        entries.sort(Comparator.comparingInt(Entry::estimate).reversed().thenComparingLong(Entry::id));
+        return entries;
+    }
+
+    private void trim() {
+        List<Entry> ranked = ranked();
+        if (ranked.size() < k) {
+            return;
+        }
+        for (Entry dropped : ranked.subList(k, ranked.size())) {
+            candidates.remove(dropped.id(), dropped.estimate());
+        }
+        floor = ranked.get(k - 1).estimate();
+    }
+
+    private static int spread(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
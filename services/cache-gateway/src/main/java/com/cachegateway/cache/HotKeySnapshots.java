@@ -0,0 +1,143 @@
+package com.cachegateway.cache;
+
+import com.cachegateway.cache.HotKeyTracker.Group;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists the hottest IDs of each namespace to local disk, for warming Redis after a restart.
+ * <p>
+ * Every {@code gateway.warmup.snapshot-interval-ms} (and on shutdown) the top
+ * {@code gateway.warmup.keys-per-namespace} IDs of each namespace/entity are written to
+ * {@code gateway.warmup.snapshot-path}. The file is replaced atomically, so a crash mid-write
+ * leaves the previous snapshot intact.
+ * <p>
+ * Format: magic(4) groups(4), then per group: namespace(UTF) entity(UTF) count(4) ids(8 each).
+ */
+@Slf4j
+@Component
+public class HotKeySnapshots {
+
+    private static final int MAGIC = 0x484B5331; // "HKS1"
+
+    private final HotKeyTracker tracker;
+    private final Path path;
+    private final int keysPerNamespace;
+    private final long intervalMs;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "hot-key-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HotKeySnapshots(HotKeyTracker tracker,
+                           @Value("${gateway.warmup.snapshot-path:data/hot-keys.snapshot}") String path,
+                           @Value("${gateway.warmup.keys-per-namespace:1000}") int keysPerNamespace,
+                           @Value("${gateway.warmup.snapshot-interval-ms:60000}") long intervalMs) {
+        this.tracker = tracker;
+        this.path = Path.of(path);
+        this.keysPerNamespace = keysPerNamespace;
+        this.intervalMs = intervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (intervalMs > 0) {
+            scheduler.scheduleWithFixedDelay(this::saveQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Writes the current hottest IDs, unless nothing has been tracked yet. */
+    public void save() throws IOException {
+        Map<Group, List<Long>> hottest = tracker.hottest(keysPerNamespace);
+        if (hottest.isEmpty()) {
+            return;
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "hot-keys", ".tmp");
+        try {
+            write(temp, hottest);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.debug("Saved hot-key snapshot of {} groups to {}", hottest.size(), path);
+    }
+
+    private static void write(Path file, Map<Group, List<Long>> hottest) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(hottest.size());
+            for (Map.Entry<Group, List<Long>> group : hottest.entrySet()) {
+                out.writeUTF(group.getKey().namespace());
+                out.writeUTF(group.getKey().entity());
+                out.writeInt(group.getValue().size());
+                for (long id : group.getValue()) {
+                    out.writeLong(id);
+                }
+            }
+        }
+    }
+
+    /** Reads the last snapshot; empty if there is none or it is unreadable. */
+    public Map<Group, List<Long>> load() {
+        Map<Group, List<Long>> snapshot = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("Ignoring hot-key snapshot {} in unknown format", path);
+                return Map.of();
+            }
+            int groups = in.readInt();
+            for (int g = 0; g < groups; g++) {
+                Group group = new Group(in.readUTF(), in.readUTF());
+                int count = in.readInt();
+                List<Long> ids = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    ids.add(in.readLong());
+                }
+                snapshot.put(group, ids);
+            }
+            return snapshot;
+        } catch (NoSuchFileException e) {
+            return Map.of();
+        } catch (IOException e) {
+            log.warn("Could not read hot-key snapshot {}", path, e);
+            return Map.of();
+        }
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write hot-key snapshot {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        saveQuietly();
+    }
+}
@@ -0,0 +1,112 @@
+package com.cachegateway.cache;
+
+import com.cachegateway.cache.HeavyHitters.Entry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the most requested IDs per namespace and entity.
+ * <p>
+ * Each group keeps a {@link HeavyHitters} (count-min sketch plus top-K of
+ * {@code gateway.hot-keys.capacity} IDs, {@code sketch-width} counters per row). Only one lookup in
+ * {@code gateway.hot-keys.sample-rate} is recorded, and every {@code decay-interval-ms} all counts are
+ * halved, so the ranking follows current traffic. Counts reported here are scaled back up by the
+ * sample rate.
+ * <p>
+ * Besides the {@code hotkeys} actuator endpoint and warm-up snapshots, other features can ask
+ * {@link #isHot} or {@link #estimate} to treat hot IDs differently (e.g. L1 admission or pinning).
+ */
+@Component
+public class HotKeyTracker {
+
+    private final int capacity;
+    private final int sampleRate;
+    private final int sketchWidth;
+    private final long decayIntervalMs;
+    private final Map<Group, HeavyHitters> groups = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "hot-key-decay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Namespace and entity segment of the cache keys being tracked. */
+    public record Group(String namespace, String entity) {
+    }
+
+    public HotKeyTracker(@Value("${gateway.hot-keys.capacity:1000}") int capacity,
+                         @Value("${gateway.hot-keys.sample-rate:16}") int sampleRate,
+                         @Value("${gateway.hot-keys.sketch-width:4096}") int sketchWidth,
+                         @Value("${gateway.hot-keys.decay-interval-ms:60000}") long decayIntervalMs) {
+        this.capacity = capacity;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.sketchWidth = sketchWidth;
+        this.decayIntervalMs = decayIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (decayIntervalMs > 0) {
+            scheduler.scheduleWithFixedDelay(this::decay, decayIntervalMs, decayIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Records a lookup of the ID (sampled). */
+    public void record(String namespace, String entity, long id) {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        groups.computeIfAbsent(new Group(namespace, entity), g -> new HeavyHitters(capacity, sketchWidth)).add(id);
+    }
+
+    /** Estimated recent lookups of the ID; 0 if its group has not been seen. */
+    public long estimate(String namespace, String entity, long id) {
+        HeavyHitters hitters = groups.get(new Group(namespace, entity));
+        return hitters == null ? 0 : (long) hitters.estimate(id) * sampleRate;
+    }
+
+    /** Whether the ID is currently among the hottest of its group. */
+    public boolean isHot(String namespace, String entity, long id) {
+        HeavyHitters hitters = groups.get(new Group(namespace, entity));
+        return hitters != null && hitters.isHeavy(id);
+    }
+
+    /** Up to {@code limit} most requested IDs of every group, hottest first. */
+    public Map<Group, List<Long>> hottest(int limit) {
+        Map<Group, List<Long>> result = new HashMap<>();
+        groups.forEach((group, hitters) -> result.put(group,
+                hitters.top(limit).stream().map(Entry::id).toList()));
+        return result;
+    }
+
+    /** Up to {@code limit} hottest IDs of every group, with estimated recent lookups. */
+    public Map<Group, List<Entry>> hottestWithCounts(int limit) {
+        Map<Group, List<Entry>> result = new HashMap<>();
+        groups.forEach((group, hitters) -> result.put(group, hitters.top(limit).stream()
+                .map(e -> new Entry(e.id(), e.estimate() * sampleRate))
+                .toList()));
+        return result;
+    }
+
+    /** Halves all counts; groups left with nothing are dropped. */
+    void decay() {
+        groups.values().forEach(HeavyHitters::decay);
+        groups.values().removeIf(HeavyHitters::isEmpty);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
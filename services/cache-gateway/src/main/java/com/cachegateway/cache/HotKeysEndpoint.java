@@ -0,0 +1,54 @@
+package com.cachegateway.cache;
+
+import com.cachegateway.cache.HeavyHitters.Entry;
+import com.cachegateway.cache.HotKeyTracker.Group;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint {@code /actuator/hotkeys} listing the hottest IDs per namespace, from {@link HotKeyTracker}.
+ * <p>
+ * {@code GET /actuator/hotkeys?limit=20} covers every namespace; {@code GET /actuator/hotkeys/{namespace}}
+ * a single one. Counts are estimated recent lookups and decay over time.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final HotKeyTracker tracker;
+
+    public HotKeysEndpoint(HotKeyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    public record HotKey(String entity, long id, long estimatedLookups) {
+    }
+
+    @ReadOperation
+    public Map<String, List<HotKey>> hotKeys(@Nullable Integer limit) {
+        Map<String, List<HotKey>> byNamespace = new TreeMap<>();
+        tracker.hottestWithCounts(limit != null ? limit : DEFAULT_LIMIT).forEach((group, entries) ->
+                byNamespace.computeIfAbsent(group.namespace(), ns -> new ArrayList<>()).addAll(toHotKeys(group, entries)));
+        byNamespace.values().forEach(keys -> keys.sort((a, b) -> Long.compare(b.estimatedLookups(), a.estimatedLookups())));
+        return byNamespace;
+    }
+
+    @ReadOperation
+    public List<HotKey> namespaceHotKeys(@Selector String namespace, @Nullable Integer limit) {
+        return hotKeys(limit).getOrDefault(namespace, List.of());
+    }
+
+    private static List<HotKey> toHotKeys(Group group, List<Entry> entries) {
+        return entries.stream().map(e -> new HotKey(group.entity(), e.id(), e.estimate())).toList();
+    }
+}
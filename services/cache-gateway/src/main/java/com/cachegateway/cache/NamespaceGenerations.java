@@ -0,0 +1,115 @@
+package com.cachegateway.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-namespace generation counters stored in Redis ({@code __gen:<namespace>}).
+ * <p>
+ * The generation is folded into every cache key, so invalidating a namespace is a single
+ * {@code INCR} instead of a {@code KEYS} scan. Each gateway keeps the current generation
+ * in memory and re-reads it from Redis at most every {@code gateway.generation.refresh-ms},
+ * or immediately when an invalidation event arrives.
+ * <p>
+ * Every namespace a gateway serves is also recorded in the Redis sorted set {@code __namespaces:seen},
+ * scored by when a gateway last served it, so per-product change events can be applied to the namespaces
+ * of all replicas. Namespaces idle for longer than {@code gateway.namespaces.retention-ms} (which should
+ * exceed the longest policy TTL, since their keys are gone by then) are pruned, so a namespace requested
+ * once does not add a write to every change event for good.
+ */
+@Slf4j
+@Component
+public class NamespaceGenerations {
+
+    private static final String KEY_PREFIX = "__gen:";
+    private static final String NAMESPACES_KEY = "__namespaces:seen";
+    private static final long TOUCH_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long refreshNanos;
+    private final long retentionMs;
+    private final Map<String, Cached> generations = new ConcurrentHashMap<>();
+    private volatile KnownNamespaces known;
+
+    private record Cached(long generation, long loadedAtNanos, long touchedAtNanos) {
+    }
+
+    private record KnownNamespaces(Set<String> namespaces, long loadedAtNanos) {
+    }
+
+    public NamespaceGenerations(StringRedisTemplate redisTemplate,
+                                @Value("${gateway.generation.refresh-ms:1000}") long refreshMs,
+                                @Value("${gateway.namespaces.retention-ms:3600000}") long retentionMs) {
+        this.redisTemplate = redisTemplate;
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMs);
+        this.retentionMs = retentionMs;
+    }
+
+    /** Current generation of the namespace (0 until it is first invalidated). */
+    public long current(String namespace) {
+        Cached cached = generations.get(namespace);
+        if (cached == null || System.nanoTime() - cached.loadedAtNanos() > refreshNanos) {
+            cached = load(namespace, cached);
+        }
+        return cached.generation();
+    }
+
+    /** Invalidates the namespace by moving it to a new generation. */
+    public long bump(String namespace) {
+        Long generation = redisTemplate.opsForValue().increment(KEY_PREFIX + namespace);
+        long value = generation != null ? generation : 0;
+        Cached previous = generations.get(namespace);
+        long now = System.nanoTime();
+        // Not recorded yet: let the next load record it
+        long touchedAt = previous != null ? previous.touchedAtNanos() : now - TOUCH_INTERVAL_NANOS - 1;
+        generations.put(namespace, new Cached(value, now, touchedAt));
+        return value;
+    }
+
+    /**
+     * Every namespace any gateway has served within the retention, re-read from Redis at most every
+     * refresh interval; namespaces idle for longer are removed from the set.
+     */
+    public Set<String> knownNamespaces() {
+        KnownNamespaces current = known;
+        if (current == null || System.nanoTime() - current.loadedAtNanos() > refreshNanos) {
+            double cutoff = System.currentTimeMillis() - retentionMs;
+            redisTemplate.opsForZSet().removeRangeByScore(NAMESPACES_KEY, Double.NEGATIVE_INFINITY, cutoff);
+            Set<String> members = redisTemplate.opsForZSet().rangeByScore(NAMESPACES_KEY, cutoff, Double.POSITIVE_INFINITY);
+            current = new KnownNamespaces(members != null ? Set.copyOf(members) : Set.of(), System.nanoTime());
+            known = current;
+        }
+        return current.namespaces();
+    }
+
+    /** Re-reads the generation from Redis, e.g. after another replica bumped it. */
+    public void refresh(String namespace) {
+        load(namespace, generations.get(namespace));
+    }
+
+    private Cached load(String namespace, Cached previous) {
+        try {
+            long now = System.nanoTime();
+            long touchedAt = previous != null ? previous.touchedAtNanos() : now;
+            if (previous == null || now - touchedAt > TOUCH_INTERVAL_NANOS) {
+                redisTemplate.opsForZSet().add(NAMESPACES_KEY, namespace, System.currentTimeMillis());
+                touchedAt = now;
+            }
+            String value = redisTemplate.opsForValue().get(KEY_PREFIX + namespace);
+            Cached loaded = new Cached(value != null ? Long.parseLong(value) : 0, now, touchedAt);
+            generations.put(namespace, loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            if (previous == null) throw e;
+            log.warn("Could not refresh generation for namespace={}, keeping {}", namespace, previous.generation(), e);
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.cachegateway.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional background reclaimer for keys left behind by a generation bump.
+ * <p>
+ * Generation-versioned invalidation leaves old entries in Redis until their TTL expires.
+ * When {@code gateway.invalidation.sweeper.enabled=true}, this sweeper walks the namespace
+ * with incremental {@code SCAN} and removes keys of older generations with non-blocking
+ * {@code UNLINK}, throttled to {@code max-keys-per-second} so it never competes with the hit path.
+ * Only keys whose generation is below the one live when the sweep started are removed, so a bump
+ * during a long sweep never costs the newer generation its keys.
+ * <p>
+ * With {@link RedisShards} the sweep visits every shard in turn, since entries of a namespace are
+ * spread over all of them; the rate limit applies across the whole sweep.
+ */
+@Slf4j
+@Component
+public class NamespaceSweeper {
+
+    private final List<StringRedisTemplate> nodes;
+    private final NamespaceGenerations generations;
+    private final boolean enabled;
+    private final int scanCount;
+    private final int maxKeysPerSecond;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "namespace-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public NamespaceSweeper(StringRedisTemplate redisTemplate,
+                            ObjectProvider<RedisShards> shards,
+                            NamespaceGenerations generations,
+                            @Value("${gateway.invalidation.sweeper.enabled:false}") boolean enabled,
+                            @Value("${gateway.invalidation.sweeper.scan-count:500}") int scanCount,
+                            @Value("${gateway.invalidation.sweeper.max-keys-per-second:5000}") int maxKeysPerSecond) {
+        RedisShards sharded = shards.getIfAvailable();
+        this.nodes = sharded != null
+                ? sharded.all().stream().map(RedisShards.Shard::strings).toList()
+                : List.of(redisTemplate);
+        this.generations = generations;
+        this.enabled = enabled;
+        this.scanCount = scanCount;
+        this.maxKeysPerSecond = maxKeysPerSecond;
+    }
+
+    /** Queues a sweep of the namespace; repeated requests while queued are merged. */
+    public void schedule(String namespace) {
+        if (enabled && queued.add(namespace)) {
+            executor.execute(() -> {
+                queued.remove(namespace);
+                sweep(namespace);
+            });
+        }
+    }
+
+    private void sweep(String namespace) {
+        long liveGeneration = generations.current(namespace);
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(CacheKeys.namespacePattern(namespace))
+                .count(scanCount)
+                .build();
+
+        long nanosPerKey = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxKeysPerSecond);
+        long removed = 0;
+        List<String> batch = new ArrayList<>(scanCount);
+
+        for (StringRedisTemplate node : nodes) {
+            try (Cursor<String> cursor = node.scan(options)) {
+                while (cursor.hasNext()) {
+                    String key = cursor.next();
+                    long generation = CacheKeys.generationOf(namespace, key);
+                    if (generation >= 0 && generation < liveGeneration) {
+                        batch.add(key);
+                    }
+                    if (batch.size() >= scanCount) {
+                        removed += unlink(node, batch, nanosPerKey);
+                    }
+                }
+                removed += unlink(node, batch, nanosPerKey);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                batch.clear();
+                log.error("[SWEEPER] Failed sweeping namespace={}", namespace, e);
+            }
+        }
+        log.info("[SWEEPER] namespace={} removed {} stale keys", namespace, removed);
+    }
+
+    private long unlink(StringRedisTemplate node, List<String> batch, long nanosPerKey) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        Long count = node.unlink(batch);
+        int size = batch.size();
+        batch.clear();
+
+        // Rate limit: spread deletions so that at most maxKeysPerSecond are removed
+        long remaining = size * nanosPerKey - (System.nanoTime() - started);
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+        return count != null ? count : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,129 @@
+package com.cachegateway.cache;
+
+import commonlibs.dto.ProductDTO;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded on-heap cache for a single namespace.
+ * <p>
+ * Eviction is frequency-aware: when the cache is full, a small sample of resident entries
+ * is compared against the incoming key using a {@link FrequencySketch}. The least frequently
+ * used sampled entry is evicted only if the newcomer is accessed more often; otherwise the
+ * newcomer is not admitted. This keeps a handful of hot products resident even under scans.
+ * <p>
+ * Samples are taken by a cursor that resumes where the previous one stopped, sweeping the whole
+ * table over successive evictions, so every entry is in turn a candidate victim and expired entries
+ * anywhere are reclaimed. One put evicts at a time; a put that finds another evicting is not admitted.
+ */
+public class NearCache {
+
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch;
+    private final int maxEntries;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Iterator<Map.Entry<String, Entry>> sampleCursor; // guarded by evictionLock
+
+    private record Entry(ProductDTO value, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    public NearCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Near cache size must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.sketch = new FrequencySketch(maxEntries);
+    }
+
+    /**
+     * Returns the cached value, or null if absent or expired.
+     * Every lookup is recorded in the frequency sketch, hit or miss.
+     */
+    public ProductDTO get(String key) {
+        sketch.increment(key);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    /** Stores the value if there is room or if it is hotter than a sampled victim. */
+    public void put(String key, ProductDTO value, Duration ttl) {
+        if (!entries.containsKey(key) && entries.size() >= maxEntries && !makeRoomFor(key)) {
+            return;
+        }
+        entries.put(key, new Entry(value, System.nanoTime() + ttl.toNanos()));
+    }
+
+    public void remove(String key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean makeRoomFor(String candidate) {
+        if (!evictionLock.tryLock()) {
+            return false;
+        }
+        try {
+            long now = System.nanoTime();
+            String victim = null;
+            int victimFrequency = Integer.MAX_VALUE;
+
+            for (int sampled = 0; sampled < EVICTION_SAMPLE_SIZE; sampled++) {
+                Map.Entry<String, Entry> e = nextSample();
+                if (e == null) {
+                    break;
+                }
+                if (e.getValue().isExpired(now)) {
+                    entries.remove(e.getKey(), e.getValue());
+                    return true;
+                }
+                int frequency = sketch.frequency(e.getKey());
+                if (frequency < victimFrequency) {
+                    victim = e.getKey();
+                    victimFrequency = frequency;
+                }
+            }
+
+            if (victim == null) {
+                return true;
+            }
+            if (sketch.frequency(candidate) > victimFrequency) {
+                entries.remove(victim);
+                return true;
+            }
+            return false;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /** Next resident entry after the previous sample, wrapping around at the end of the table. */
+    private Map.Entry<String, Entry> nextSample() {
+        if (sampleCursor == null || !sampleCursor.hasNext()) {
+            sampleCursor = entries.entrySet().iterator();
+        }
+        return sampleCursor.hasNext() ? sampleCursor.next() : null;
+    }
+}
@@ -0,0 +1,104 @@
+package com.cachegateway.cache;
+
+import commonlibs.cache.config.CachePolicyProperties;
+import commonlibs.cache.config.CachePolicyProperties.NearCacheConfig;
+import commonlibs.cache.policy.Policy;
+import commonlibs.dto.ProductDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds one {@link NearCache} (L1) per namespace.
+ * <p>
+ * L1 is opt-in per namespace through {@code cache.policies.<ns>.near-cache.enabled}.
+ * An entry lives for the configured near-cache TTL, capped by the namespace {@link Policy} TTL (the soft
+ * TTL when set) and by the refresh time stamped on the Redis entry it mirrors, which is its soft TTL or,
+ * without one, its expiry. So L1 never outlives that entry or delays its refresh, even when filled late
+ * in the entry's life. Values stored without a refresh time (by versions that did not stamp one) are
+ * capped by the policy only.
+ */
+@Slf4j
+@Component
+public class NearCacheManager {
+
+    private final CachePolicyProperties cachePolicyProperties;
+    private final Map<String, NearCache> caches = new ConcurrentHashMap<>();
+
+    public NearCacheManager(CachePolicyProperties cachePolicyProperties) {
+        this.cachePolicyProperties = cachePolicyProperties;
+    }
+
+    /** Returns the L1 value for the key, or null if L1 is disabled or has no entry. */
+    public ProductDTO get(String namespace, String key) {
+        NearCacheConfig config = cachePolicyProperties.resolve(namespace).getNearCache();
+        if (!config.isEnabled()) {
+            return null;
+        }
+        return cacheFor(namespace, config).get(key);
+    }
+
+    /** Whether the namespace has an L1 tier. */
+    public boolean isEnabled(String namespace) {
+        return cachePolicyProperties.resolve(namespace).getNearCache().isEnabled();
+    }
+
+    /**
+     * Stores the value in L1 if enabled for the namespace.
+     *
+     * @param refreshAtMillis refresh time (soft TTL, else expiry) of the Redis entry, 0 if unknown
+     */
+    public void put(String namespace, String key, ProductDTO value, Policy policy, long refreshAtMillis) {
+        NearCacheConfig config = cachePolicyProperties.resolve(namespace).getNearCache();
+        if (!config.isEnabled() || value == null) {
+            return;
+        }
+        long ttlMillis = TimeUnit.SECONDS.toMillis(Math.min(config.getTtl(), policy.freshSeconds()));
+        if (refreshAtMillis > 0) {
+            ttlMillis = Math.min(ttlMillis, refreshAtMillis - System.currentTimeMillis());
+        }
+        if (ttlMillis <= 0) {
+            return;
+        }
+        cacheFor(namespace, config).put(key, value, Duration.ofMillis(ttlMillis));
+    }
+
+    /** Drops one key from the L1 tier of a namespace, if present. */
+    public void evict(String namespace, String key) {
+        NearCache cache = caches.get(namespace);
+        if (cache != null) {
+            cache.remove(key);
+        }
+    }
+
+    /** Namespaces that currently have an L1 tier on this instance. */
+    public Set<String> activeNamespaces() {
+        return Set.copyOf(caches.keySet());
+    }
+
+    /** Drops the L1 tier of a namespace; it is rebuilt lazily from the current config. */
+    public void invalidate(String namespace) {
+        NearCache cache = caches.remove(namespace);
+        if (cache != null) {
+            cache.clear();
+            log.info("[NEAR-CACHE] Cleared namespace={}", namespace);
+        }
+    }
+
+    /** Config refresh may change sizes or disable L1, so start over. */
+    @EventListener(EnvironmentChangeEvent.class)
+    public void invalidateAll() {
+        caches.keySet().forEach(this::invalidate);
+    }
+
+    private NearCache cacheFor(String namespace, NearCacheConfig config) {
+        return caches.computeIfAbsent(namespace, ns -> new NearCache(config.getMaxEntries()));
+    }
+}
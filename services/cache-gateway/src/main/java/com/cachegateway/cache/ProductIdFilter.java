@@ -0,0 +1,91 @@
+package com.cachegateway.cache;
+
+import commonlibs.cache.bloom.IdBloomFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional gate in front of the cache that rejects product IDs which certainly do not exist.
+ * <p>
+ * When {@code gateway.id-filter.enabled=true}, the gateway downloads a Bloom filter of all product
+ * IDs from db-fetcher ({@code GET /products/id-filter}) on startup and every {@code refresh-ms}.
+ * An ID the filter has never seen is answered as not found without touching Redis, Kafka or Postgres.
+ * IDs above the filter's highest ID are always let through, so products created after the last
+ * refresh stay reachable. Since identity IDs can commit out of order, a product created after the
+ * build may still get an ID below that; every ID seen in an UPSERT on {@code db.product.changes} is
+ * therefore also let through until a downloaded filter contains it.
+ * Until the first download succeeds, or if it is disabled, every ID passes.
+ */
+@Slf4j
+@Component
+public class ProductIdFilter {
+
+    private final RestClient restClient;
+    private final boolean enabled;
+    private final long refreshMs;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "product-id-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Set<Long> upserted = ConcurrentHashMap.newKeySet();
+
+    private volatile IdBloomFilter filter;
+
+    public ProductIdFilter(RestClient.Builder restClientBuilder,
+                           @Value("${services.dbfetcher.url:http://localhost:8082}") String dbFetcherUrl,
+                           @Value("${gateway.id-filter.enabled:false}") boolean enabled,
+                           @Value("${gateway.id-filter.refresh-ms:60000}") long refreshMs) {
+        this.restClient = restClientBuilder.baseUrl(dbFetcherUrl).build();
+        this.enabled = enabled;
+        this.refreshMs = refreshMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** False only if the product certainly does not exist. */
+    public boolean mightExist(long id) {
+        IdBloomFilter current = filter;
+        return current == null || id > current.maxId() || current.mightContain(id) || upserted.contains(id);
+    }
+
+    /** Lets a product written since the last download through, whatever its ID. */
+    public void recordUpsert(long id) {
+        if (enabled) {
+            upserted.add(id);
+        }
+    }
+
+    private void refresh() {
+        try {
+            byte[] bytes = restClient.get().uri("/products/id-filter").retrieve().body(byte[].class);
+            IdBloomFilter loaded = IdBloomFilter.fromBytes(bytes);
+            filter = loaded;
+            upserted.removeIf(loaded::mightContain);
+            log.info("Loaded product ID filter ({} bytes, max id {})", bytes.length, loaded.maxId());
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh product ID filter, keeping the previous one", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,37 @@
+package com.cachegateway.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Redis access for encoded product values.
+ * <p>
+ * The implementation is chosen by {@code gateway.execution-mode}:
+ * <ul>
+ *     <li>{@code blocking} (default) - {@link BlockingProductStore}, the calling thread waits for Redis.</li>
+ *     <li>{@code reactive} - {@link ReactiveProductStore}, Lettuce completes the future from its event loop
+ *     and no request thread is held during the round-trip.</li>
+ * </ul>
+ * With {@code gateway.redis.sharding.enabled=true}, {@link ShardedProductStore} spreads keys over several
+ * Redis nodes and uses one of the above per node.
+ * With {@code gateway.redis.batching.enabled=true}, {@link BatchingProductStore} wraps either one and
+ * merges concurrent {@link #get} calls into MGETs.
+ */
+public interface ProductStore {
+
+    /** Value stored under the key, or null if absent. */
+    CompletableFuture<byte[]> get(String key);
+
+    /** Values for all keys in one round-trip, in key order (null where absent). */
+    CompletableFuture<List<byte[]>> multiGet(List<String> keys);
+
+    /** Stores the value with a TTL; failures are logged, not propagated. */
+    void set(String key, byte[] value, Duration ttl);
+
+    /** Overwrites the value only if the key exists ({@code SET XX}); failures are logged, not propagated. */
+    void setIfPresent(String key, byte[] value, Duration ttl);
+
+    /** Removes the key ({@code UNLINK}); failures are logged, not propagated. */
+    void delete(String key);
+}
@@ -0,0 +1,57 @@
+package com.cachegateway.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link ProductStore} on reactive Lettuce: commands are written to the shared connection and
+ * the returned future completes on the Lettuce event loop, so the request thread is released
+ * as soon as the command is sent. Spring MVC then finishes the response asynchronously.
+ * <p>
+ * Continuations attached to these futures run on the event loop and must not block.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("'${gateway.execution-mode:blocking}' == 'reactive' and !${gateway.redis.sharding.enabled:false}")
+public class ReactiveProductStore implements ProductStore {
+
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+
+    public ReactiveProductStore(ReactiveRedisTemplate<String, byte[]> reactiveProductRedisTemplate) {
+        this.redisTemplate = reactiveProductRedisTemplate;
+    }
+
+    @Override
+    public CompletableFuture<byte[]> get(String key) {
+        return redisTemplate.opsForValue().get(key).toFuture();
+    }
+
+    @Override
+    public CompletableFuture<List<byte[]>> multiGet(List<String> keys) {
+        return redisTemplate.opsForValue().multiGet(keys).toFuture();
+    }
+
+    @Override
+    public void set(String key, byte[] value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl)
+                .subscribe(null, ex -> log.error("Failed to store key={} in Redis", key, ex));
+    }
+
+    @Override
+    public void setIfPresent(String key, byte[] value, Duration ttl) {
+        redisTemplate.opsForValue().setIfPresent(key, value, ttl)
+                .subscribe(null, ex -> log.error("Failed to overwrite key={} in Redis", key, ex));
+    }
+
+    @Override
+    public void delete(String key) {
+        redisTemplate.unlink(key)
+                .subscribe(null, ex -> log.error("Failed to delete key={} from Redis", key, ex));
+    }
+}
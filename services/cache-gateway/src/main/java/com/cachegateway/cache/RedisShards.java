@@ -0,0 +1,109 @@
+package com.cachegateway.cache;
+
+import com.cachegateway.config.RedisConfiguration;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Redis nodes that cached products are spread over when {@code gateway.redis.sharding.enabled=true}.
+ * <p>
+ * {@code gateway.redis.sharding.nodes} lists the nodes as comma-separated {@code host:port}; each gets its
+ * own Lettuce connection with the credentials, database and timeout of {@code spring.data.redis}.
+ * Keys are assigned by a {@link ConsistentHashRing} with {@code virtual-nodes} points per node, keyed by
+ * {@code host:port}, so every gateway with the same list agrees, and the order of the list does not matter.
+ * <p>
+ * Only product entries are sharded. Coordination keys (namespace generations, the namespace set) stay
+ * on the {@code spring.data.redis} node, which may also be one of the shards.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gateway.redis.sharding.enabled", havingValue = "true")
+public class RedisShards {
+
+    /**
+     * One Redis node: string access for maintenance (SCAN/UNLINK) and product access in the
+     * configured execution mode.
+     */
+    public record Shard(String name, StringRedisTemplate strings, ProductStore products) {
+    }
+
+    private final List<LettuceConnectionFactory> connectionFactories = new ArrayList<>();
+    private final ConsistentHashRing<Shard> ring;
+
+    public RedisShards(RedisProperties redis,
+                       @Value("${gateway.redis.sharding.nodes:}") String nodes,
+                       @Value("${gateway.redis.sharding.virtual-nodes:256}") int virtualNodes,
+                       @Value("${gateway.execution-mode:blocking}") String executionMode) {
+        List<String> names = Arrays.stream(nodes.split(","))
+                .map(String::trim)
+                .filter(node -> !node.isEmpty())
+                .distinct()
+                .toList();
+        if (names.isEmpty()) {
+            throw new IllegalStateException("gateway.redis.sharding.enabled=true but gateway.redis.sharding.nodes is empty");
+        }
+
+        boolean reactive = "reactive".equals(executionMode);
+        List<Shard> shards = new ArrayList<>(names.size());
+        for (String name : names) {
+            LettuceConnectionFactory factory = connect(name, redis);
+            connectionFactories.add(factory);
+            shards.add(new Shard(name, new StringRedisTemplate(factory),
+                    reactive ? new ReactiveProductStore(RedisConfiguration.reactiveProductTemplate(factory))
+                            : new BlockingProductStore(RedisConfiguration.productTemplate(factory))));
+        }
+        this.ring = new ConsistentHashRing<>(shards, Shard::name, virtualNodes);
+
+        ring.ownership().forEach((shard, share) ->
+                log.info("[SHARDING] node={} owns {}% of the key space", shard.name(), String.format("%.1f", share * 100)));
+    }
+
+    /** Shard that owns the key. */
+    public Shard shardFor(String key) {
+        return ring.nodeFor(key);
+    }
+
+    /** Every shard, for namespace-wide operations. */
+    public List<Shard> all() {
+        return ring.nodes();
+    }
+
+    private static LettuceConnectionFactory connect(String node, RedisProperties redis) {
+        int colon = node.lastIndexOf(':');
+        if (colon <= 0 || colon == node.length() - 1) {
+            throw new IllegalArgumentException("Redis shard must be host:port, got '" + node + "'");
+        }
+        RedisStandaloneConfiguration standalone = new RedisStandaloneConfiguration(
+                node.substring(0, colon), Integer.parseInt(node.substring(colon + 1)));
+        standalone.setDatabase(redis.getDatabase());
+        standalone.setUsername(redis.getUsername());
+        if (redis.getPassword() != null) {
+            standalone.setPassword(redis.getPassword());
+        }
+
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder client = LettuceClientConfiguration.builder();
+        if (redis.getTimeout() != null) {
+            client.commandTimeout(redis.getTimeout());
+        }
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(standalone, client.build());
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionFactories.forEach(LettuceConnectionFactory::destroy);
+    }
+}
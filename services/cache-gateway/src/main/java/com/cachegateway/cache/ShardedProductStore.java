@@ -0,0 +1,84 @@
+package com.cachegateway.cache;
+
+import com.cachegateway.cache.RedisShards.Shard;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link ProductStore} over several Redis nodes ({@link RedisShards}): every key is read and written on
+ * the node that owns it. A multi-get is split into one MGET per node involved and the results are put
+ * back in key order; in reactive mode the MGETs are in flight together, in blocking mode they run one
+ * after another.
+ * <p>
+ * Replaces {@link BlockingProductStore} / {@link ReactiveProductStore}, which it uses per node.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.redis.sharding.enabled", havingValue = "true")
+public class ShardedProductStore implements ProductStore {
+
+    private final RedisShards shards;
+
+    public ShardedProductStore(RedisShards shards) {
+        this.shards = shards;
+    }
+
+    @Override
+    public CompletableFuture<byte[]> get(String key) {
+        return storeFor(key).get(key);
+    }
+
+    @Override
+    public CompletableFuture<List<byte[]>> multiGet(List<String> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        Map<Shard, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            positions.computeIfAbsent(shards.shardFor(keys.get(i)), s -> new ArrayList<>()).add(i);
+        }
+        if (positions.size() == 1) {
+            return positions.keySet().iterator().next().products().multiGet(keys);
+        }
+
+        byte[][] values = new byte[keys.size()][];
+        CompletableFuture<?>[] parts = new CompletableFuture<?>[positions.size()];
+        int part = 0;
+        for (Map.Entry<Shard, List<Integer>> entry : positions.entrySet()) {
+            List<Integer> indexes = entry.getValue();
+            List<String> shardKeys = indexes.stream().map(keys::get).toList();
+            parts[part++] = entry.getKey().products().multiGet(shardKeys).thenAccept(shardValues -> {
+                for (int i = 0; i < indexes.size(); i++) {
+                    values[indexes.get(i)] = shardValues != null ? shardValues.get(i) : null;
+                }
+            });
+        }
+        return CompletableFuture.allOf(parts).thenApply(ignored -> Arrays.asList(values));
+    }
+
+    @Override
+    public void set(String key, byte[] value, Duration ttl) {
+        storeFor(key).set(key, value, ttl);
+    }
+
+    @Override
+    public void setIfPresent(String key, byte[] value, Duration ttl) {
+        storeFor(key).setIfPresent(key, value, ttl);
+    }
+
+    @Override
+    public void delete(String key) {
+        storeFor(key).delete(key);
+    }
+
+    private ProductStore storeFor(String key) {
+        return shards.shardFor(key).products();
+    }
+}
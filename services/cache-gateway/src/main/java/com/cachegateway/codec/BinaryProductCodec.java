@@ -0,0 +1,201 @@
+package com.cachegateway.codec;
+
+import commonlibs.dto.ProductDTO;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact, versioned binary format for {@link ProductDTO}.
+ * <p>
+ * Layout (version 1):
+ * <pre>
+ * magic(1) version(1) flags(1)
+ * [id: zigzag varlong]
+ * [name: varint length + UTF-8]
+ * [description: varint length + UTF-8]
+ * [price: zigzag varint scale + varint length + unscaled two's-complement bytes]
+ * </pre>
+ * A field is present only if its bit is set in {@code flags}, so nulls cost nothing.
+ * The magic byte can never start a JSON document, which lets readers tell the formats apart.
+ */
+@Component
+public class BinaryProductCodec implements ValueCodec {
+
+    public static final String NAME = "binary";
+
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte VERSION_1 = 1;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int HAS_DESCRIPTION = 1 << 2;
+    private static final int HAS_PRICE = 1 << 3;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(ProductDTO product) {
+        byte[] name = product.getName() != null ? product.getName().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] description = product.getDescription() != null
+                ? product.getDescription().getBytes(StandardCharsets.UTF_8) : null;
+        BigDecimal price = product.getPrice();
+        byte[] unscaled = price != null ? price.unscaledValue().toByteArray() : null;
+
+        int flags = 0;
+        int size = 3;
+        if (product.getId() != null) {
+            flags |= HAS_ID;
+            size += varLongSize(zigzag(product.getId()));
+        }
+        if (name != null) {
+            flags |= HAS_NAME;
+            size += varLongSize(name.length) + name.length;
+        }
+        if (description != null) {
+            flags |= HAS_DESCRIPTION;
+            size += varLongSize(description.length) + description.length;
+        }
+        if (unscaled != null) {
+            flags |= HAS_PRICE;
+            size += varLongSize(zigzag(price.scale())) + varLongSize(unscaled.length) + unscaled.length;
+        }
+
+        Writer out = new Writer(new byte[size]);
+        out.put(MAGIC);
+        out.put(VERSION_1);
+        out.put((byte) flags);
+        if (product.getId() != null) out.varLong(zigzag(product.getId()));
+        if (name != null) out.bytes(name);
+        if (description != null) out.bytes(description);
+        if (unscaled != null) {
+            out.varLong(zigzag(price.scale()));
+            out.bytes(unscaled);
+        }
+        return out.buffer;
+    }
+
+    @Override
+    public ProductDTO decode(byte[] bytes) {
+        if (!canDecode(bytes)) {
+            throw new SerializationException("Not a binary product value");
+        }
+        Reader in = new Reader(bytes, 1);
+        byte version = in.get();
+        if (version != VERSION_1) {
+            throw new SerializationException("Unsupported binary product version " + version);
+        }
+        int flags = in.get();
+
+        ProductDTO product = new ProductDTO();
+        if ((flags & HAS_ID) != 0) product.setId(unzigzag(in.varLong()));
+        if ((flags & HAS_NAME) != 0) product.setName(in.string());
+        if ((flags & HAS_DESCRIPTION) != 0) product.setDescription(in.string());
+        if ((flags & HAS_PRICE) != 0) {
+            int scale = (int) unzigzag(in.varLong());
+            product.setPrice(new BigDecimal(new BigInteger(in.bytes()), scale));
+        }
+        return product;
+    }
+
+    @Override
+    public boolean canDecode(byte[] bytes) {
+        return bytes.length >= 3 && bytes[0] == MAGIC;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static final class Writer {
+        final byte[] buffer;
+        int position;
+
+        Writer(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        void put(byte b) {
+            buffer[position++] = b;
+        }
+
+        void varLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void bytes(byte[] data) {
+            varLong(data.length);
+            System.arraycopy(data, 0, buffer, position, data.length);
+            position += data.length;
+        }
+    }
+
+    private static final class Reader {
+        final byte[] buffer;
+        int position;
+
+        Reader(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        byte get() {
+            if (position >= buffer.length) throw new SerializationException("Truncated binary product value");
+            return buffer[position++];
+        }
+
+        long varLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = get();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+            throw new SerializationException("Malformed varint in binary product value");
+        }
+
+        byte[] bytes() {
+            long length = varLong();
+            if (length < 0 || length > buffer.length - position) {
+                throw new SerializationException("Truncated binary product value");
+            }
+            byte[] data = new byte[(int) length];
+            System.arraycopy(buffer, position, data, 0, data.length);
+            position += data.length;
+            return data;
+        }
+
+        String string() {
+            long length = varLong();
+            if (length < 0 || length > buffer.length - position) {
+                throw new SerializationException("Truncated binary product value");
+            }
+            String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+    }
+}
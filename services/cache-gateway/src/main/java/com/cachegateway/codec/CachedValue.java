@@ -0,0 +1,46 @@
+package com.cachegateway.codec;
+
+import commonlibs.dto.ProductDTO;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A product read from Redis together with its freshness metadata.
+ *
+ * @param product        decoded product, or null for a tombstone (the product does not exist)
+ * @param refreshAtMillis epoch millis after which the value is stale and should be refreshed
+ *                        in the background (0 = never, the hard TTL alone applies)
+ * @param fetchMillis    how long the fetch that produced the value took (0 = unknown)
+ */
+public record CachedValue(ProductDTO product, long refreshAtMillis, long fetchMillis) {
+
+    /** Cached "not found" answer. */
+    public static final CachedValue NOT_FOUND = new CachedValue(null, 0, 0);
+
+    public CachedValue(ProductDTO product, long refreshAtMillis) {
+        this(product, refreshAtMillis, 0);
+    }
+
+    public boolean isNotFound() {
+        return product == null;
+    }
+
+    public boolean isStale(long nowMillis) {
+        return refreshAtMillis > 0 && nowMillis >= refreshAtMillis;
+    }
+
+    /**
+     * XFetch: whether this reader should refresh the value ahead of {@code refreshAtMillis}.
+     * <p>
+     * True when {@code now + fetchMillis * beta * -ln(U)}, U uniform in (0, 1], reaches the refresh
+     * time. The chance rises smoothly as the deadline nears, and earlier for values that were slow
+     * to fetch, so one reader usually refreshes just in time instead of many at expiry.
+     */
+    public boolean isDueForEarlyRefresh(long nowMillis, double beta) {
+        if (beta <= 0 || refreshAtMillis <= 0 || fetchMillis <= 0) {
+            return false;
+        }
+        double lead = fetchMillis * beta * -Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        return nowMillis + lead >= refreshAtMillis;
+    }
+}
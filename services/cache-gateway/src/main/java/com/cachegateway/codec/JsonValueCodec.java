@@ -0,0 +1,37 @@
+package com.cachegateway.codec;
+
+import commonlibs.dto.ProductDTO;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.stereotype.Component;
+
+/**
+ * JSON with embedded {@code @class} type info, byte-compatible with the values written by
+ * {@link GenericJackson2JsonRedisSerializer} before codecs were pluggable.
+ */
+@Component
+public class JsonValueCodec implements ValueCodec {
+
+    public static final String NAME = "json";
+
+    private final GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(ProductDTO product) {
+        return serializer.serialize(product);
+    }
+
+    @Override
+    public ProductDTO decode(byte[] bytes) {
+        return serializer.deserialize(bytes) instanceof ProductDTO product ? product : null;
+    }
+
+    @Override
+    public boolean canDecode(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == '{';
+    }
+}
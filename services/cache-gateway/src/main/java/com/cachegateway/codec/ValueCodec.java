@@ -0,0 +1,23 @@
+package com.cachegateway.codec;
+
+import commonlibs.dto.ProductDTO;
+
+/**
+ * Encodes cached {@link ProductDTO} values to and from the bytes stored in Redis.
+ * <p>
+ * Implementations are Spring beans picked up by {@link ValueCodecs}; a namespace selects
+ * the codec used for writes through {@code cache.policies.<ns>.value-codec}. Reads detect
+ * the format from the stored bytes, so namespaces can switch codecs without a flush.
+ */
+public interface ValueCodec {
+
+    /** Name used to select this codec in configuration (e.g. "json", "binary"). */
+    String name();
+
+    byte[] encode(ProductDTO product);
+
+    ProductDTO decode(byte[] bytes);
+
+    /** Whether the bytes look like they were written by this codec. */
+    boolean canDecode(byte[] bytes);
+}
@@ -0,0 +1,158 @@
+package com.cachegateway.codec;
+
+import commonlibs.cache.config.CachePolicyProperties;
+import commonlibs.dto.ProductDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of {@link ValueCodec}s.
+ * <p>
+ * Writes use the codec configured for the namespace ({@code cache.policies.<ns>.value-codec},
+ * JSON by default). Reads try every codec's format check, so values written before a namespace
+ * switched codecs stay readable until they expire.
+ * <p>
+ * Values of namespaces with a soft TTL, early refresh or a near cache are wrapped in a small envelope
+ * carrying the refresh time (the expiry if there is no soft TTL) and, from version 2, how long the fetch took:
+ * <pre>
+ * magic(1) version(1) refreshAtMillis(8, big-endian) [fetchMillis(4, big-endian), v2] codec bytes...
+ * </pre>
+ * Unwrapped values are read as fresh until their hard TTL. A single {@code 0xE0} byte is a
+ * tombstone: the product was looked up and does not exist.
+ */
+@Slf4j
+@Component
+public class ValueCodecs {
+
+    static final byte TOMBSTONE = (byte) 0xE0;
+    static final byte ENVELOPE_MAGIC = (byte) 0xE1;
+    static final byte ENVELOPE_VERSION_1 = 1;
+    static final byte ENVELOPE_VERSION_2 = 2;
+    private static final int ENVELOPE_HEADER_V1 = 10;
+    private static final int ENVELOPE_HEADER_V2 = 14;
+
+    private final Map<String, ValueCodec> codecs;
+    private final List<ValueCodec> readers;
+    private final CachePolicyProperties cachePolicyProperties;
+
+    public ValueCodecs(List<ValueCodec> codecs, CachePolicyProperties cachePolicyProperties) {
+        this.codecs = codecs.stream().collect(Collectors.toMap(ValueCodec::name, Function.identity()));
+        this.readers = List.copyOf(codecs);
+        this.cachePolicyProperties = cachePolicyProperties;
+    }
+
+    /** Encodes the product with the namespace's configured codec. */
+    public byte[] encode(String namespace, ProductDTO product) {
+        return forNamespace(namespace).encode(product);
+    }
+
+    /**
+     * Encodes the product and, if {@code refreshAtMillis > 0}, wraps it with its refresh time.
+     */
+    public byte[] encode(String namespace, ProductDTO product, long refreshAtMillis) {
+        return encode(namespace, product, refreshAtMillis, 0);
+    }
+
+    /**
+     * Encodes the product and, if {@code refreshAtMillis > 0}, wraps it with its refresh time and,
+     * if {@code fetchMillis > 0}, the duration of the fetch that produced it.
+     */
+    public byte[] encode(String namespace, ProductDTO product, long refreshAtMillis, long fetchMillis) {
+        byte[] payload = encode(namespace, product);
+        if (refreshAtMillis <= 0) {
+            return payload;
+        }
+        int header = fetchMillis > 0 ? ENVELOPE_HEADER_V2 : ENVELOPE_HEADER_V1;
+        byte[] bytes = new byte[header + payload.length];
+        bytes[0] = ENVELOPE_MAGIC;
+        bytes[1] = fetchMillis > 0 ? ENVELOPE_VERSION_2 : ENVELOPE_VERSION_1;
+        for (int i = 0; i < 8; i++) {
+            bytes[2 + i] = (byte) (refreshAtMillis >>> (56 - 8 * i));
+        }
+        if (fetchMillis > 0) {
+            int millis = (int) Math.min(fetchMillis, Integer.MAX_VALUE);
+            for (int i = 0; i < 4; i++) {
+                bytes[10 + i] = (byte) (millis >>> (24 - 8 * i));
+            }
+        }
+        System.arraycopy(payload, 0, bytes, header, payload.length);
+        return bytes;
+    }
+
+    /** Value stored for a product that does not exist. */
+    public byte[] tombstone() {
+        return new byte[]{TOMBSTONE};
+    }
+
+    /**
+     * Decodes a stored value along with its refresh time.
+     *
+     * @return the value ({@link CachedValue#NOT_FOUND} for a tombstone), or null for a missing,
+     * unknown or corrupt value (treated as a miss)
+     */
+    public CachedValue decodeEntry(byte[] bytes) {
+        if (bytes != null && bytes.length == 1 && bytes[0] == TOMBSTONE) {
+            return CachedValue.NOT_FOUND;
+        }
+        if (bytes == null || bytes.length == 0 || bytes[0] != ENVELOPE_MAGIC) {
+            ProductDTO product = decode(bytes);
+            return product != null ? new CachedValue(product, 0) : null;
+        }
+        int header = bytes.length > 1 && bytes[1] == ENVELOPE_VERSION_2 ? ENVELOPE_HEADER_V2
+                : bytes.length > 1 && bytes[1] == ENVELOPE_VERSION_1 ? ENVELOPE_HEADER_V1 : -1;
+        if (header < 0 || bytes.length <= header) {
+            log.warn("Discarding cache value with unsupported envelope");
+            return null;
+        }
+        long refreshAtMillis = 0;
+        for (int i = 0; i < 8; i++) {
+            refreshAtMillis = (refreshAtMillis << 8) | (bytes[2 + i] & 0xFF);
+        }
+        long fetchMillis = 0;
+        for (int i = 10; i < header; i++) {
+            fetchMillis = (fetchMillis << 8) | (bytes[i] & 0xFF);
+        }
+        byte[] payload = new byte[bytes.length - header];
+        System.arraycopy(bytes, header, payload, 0, payload.length);
+        ProductDTO product = decode(payload);
+        return product != null ? new CachedValue(product, refreshAtMillis, fetchMillis) : null;
+    }
+
+    /**
+     * Decodes a stored value in whatever supported format it was written.
+     *
+     * @return the product, or null for a missing, unknown or corrupt value (treated as a miss)
+     */
+    public ProductDTO decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        for (ValueCodec codec : readers) {
+            if (codec.canDecode(bytes)) {
+                try {
+                    return codec.decode(bytes);
+                } catch (RuntimeException e) {
+                    log.warn("Discarding unreadable {} cache value", codec.name(), e);
+                    return null;
+                }
+            }
+        }
+        log.warn("Discarding cache value in unknown format (first byte 0x{})",
+                Integer.toHexString(bytes[0] & 0xFF));
+        return null;
+    }
+
+    public ValueCodec forNamespace(String namespace) {
+        String name = cachePolicyProperties.resolve(namespace).getValueCodec();
+        ValueCodec codec = codecs.get(name);
+        if (codec == null) {
+            throw new IllegalStateException("Unknown value codec '" + name + "' for namespace " + namespace);
+        }
+        return codec;
+    }
+}
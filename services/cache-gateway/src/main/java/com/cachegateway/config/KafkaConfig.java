@@ -1,20 +1,37 @@
 package com.cachegateway.config;
 
+import com.cachegateway.service.ReplyTopics;
 import commonlibs.cache.policy.Policy;
 import commonlibs.kafka.config.KafkaCommonConfig;
+import commonlibs.kafka.messages.ProductBatchFetchRequest;
+import commonlibs.kafka.messages.ProductBatchFetchResponse;
+import commonlibs.kafka.messages.ProductChangeEvent;
+import commonlibs.kafka.messages.ProductFetchRequest;
+import commonlibs.kafka.messages.ProductFetchResponse;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.config.TopicConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Map;
 
 /**
  * Kafka configuration for Cache Gateway.
  * <p>
  * Extends KafkaCommonConfig to reuse generic producer/consumer factories and listener container helpers.
  * Defines beans for:
- * - Policy updates (JSON-serialized)
+ * - Policy updates (JSON-serialized) and their compacted topic
  * - Namespace invalidation (String messages)
+ * - Fetch requests to db-fetcher and their responses (JSON, or binary on topics in spring.kafka.binary-topics)
+ * - Product change events from db-fetcher (JSON-serialized)
+ * - This instance's reply topics, created on startup through Boot's KafkaAdmin
  */
 @Configuration
 @EnableKafka
@@ -28,13 +45,30 @@ public class KafkaConfig extends KafkaCommonConfig {
     @Value("${spring.kafka.consumer.invalidate-group-id}")
     private String invalidateGroupId;
 
+    /** Partitions of each per-instance reply topic */
+    @Value("${gateway.reply.partitions:1}")
+    private int replyPartitions;
+
+    /** Replies are useless after the fetch deadline, so keep them only briefly */
+    @Value("${gateway.reply.retention-ms:300000}")
+    private long replyRetentionMs;
+
     /**
-     * Kafka listener container factory for Policy objects.
-     * Used by @KafkaListener methods handling "cache.policy.updates" topic.
+     * Consumer factory for Policy objects, used by PolicyUpdateFeed to read "cache.policy.updates".
+     * The feed assigns partitions itself and never commits, so every instance reads the whole topic.
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Policy> policyKafkaListenerContainerFactory() {
-        return jsonListenerFactory(Policy.class, policyGroupId);
+    public ConsumerFactory<String, Policy> policyConsumerFactory() {
+        return jsonConsumerFactory(Policy.class, policyGroupId, Map.of(
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false,
+                ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, false));
+    }
+
+    /** The compacted "cache.policy.updates" topic, in case the orchestrator has not created it yet. */
+    @Bean
+    @Override
+    public NewTopic policyUpdatesTopic() {
+        return super.policyUpdatesTopic();
     }
 
     /**
@@ -45,4 +79,62 @@ public class KafkaConfig extends KafkaCommonConfig {
     public ConcurrentKafkaListenerContainerFactory<String, String> stringKafkaListenerContainerFactory() {
         return stringListenerFactory(invalidateGroupId);
     }
+
+    /** Template for single fetch requests to "db.fetch.requests". */
+    @Bean
+    public KafkaTemplate<String, ProductFetchRequest> productRequestKafkaTemplate() {
+        return jsonKafkaTemplate();
+    }
+
+    /** Template for batch fetch requests to "db.fetch.batch.requests". */
+    @Bean
+    public KafkaTemplate<String, ProductBatchFetchRequest> batchRequestKafkaTemplate() {
+        return jsonKafkaTemplate();
+    }
+
+    /**
+     * Kafka listener container factory for single fetch responses.
+     * Used by @KafkaListener methods handling this instance's reply topic.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductFetchResponse> responseListenerFactory() {
+        return jsonListenerFactory(ProductFetchResponse.class, "cache-gateway-group");
+    }
+
+    /**
+     * Kafka listener container factory for batch fetch responses.
+     * Used by @KafkaListener methods handling this instance's batch reply topic.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductBatchFetchResponse> batchResponseListenerFactory() {
+        return jsonListenerFactory(ProductBatchFetchResponse.class, "cache-gateway-group");
+    }
+
+    /**
+     * Kafka listener container factory for product change events.
+     * Used by @KafkaListener methods handling "db.product.changes" topic.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductChangeEvent> changeEventListenerFactory() {
+        return jsonListenerFactory(ProductChangeEvent.class, "cache-gateway-change-group");
+    }
+
+    /** Reply topic for single fetch responses to this instance. */
+    @Bean
+    public NewTopic replyTopic(ReplyTopics replyTopics) {
+        return buildReplyTopic(replyTopics.single());
+    }
+
+    /** Reply topic for batch fetch responses to this instance. */
+    @Bean
+    public NewTopic batchReplyTopic(ReplyTopics replyTopics) {
+        return buildReplyTopic(replyTopics.batch());
+    }
+
+    private NewTopic buildReplyTopic(String name) {
+        return TopicBuilder.name(name)
+                .partitions(replyPartitions)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(replyRetentionMs))
+                .build();
+    }
 }
@@ -1,18 +1,26 @@
 package com.cachegateway.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
  * Redis configuration for Cache Gateway.
  * <p>
- * Provides a RedisTemplate configured for:
+ * Provides RedisTemplates configured for:
  * - String keys
- * - JSON-serialized values with type information
+ * - JSON-serialized values with type information (general purpose)
+ * - Raw byte values, for cached products encoded by a pluggable
+ *   {@link com.cachegateway.codec.ValueCodec} (blocking, and reactive when
+ *   {@code gateway.execution-mode=reactive})
  * <p>
  * This setup ensures type-safe storage and retrieval of cache objects.
  */
@@ -41,4 +49,50 @@ public class RedisConfiguration {
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * Configures a RedisTemplate<String, byte[]> for product values.
+     * <p>
+     * Values are passed through untouched; encoding is chosen per namespace by
+     * {@link com.cachegateway.codec.ValueCodecs}.
+     *
+     * @param connectionFactory Redis connection factory
+     * @return RedisTemplate with string keys and raw byte values
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> productRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return productTemplate(connectionFactory);
+    }
+
+    /**
+     * Configures a ReactiveRedisTemplate<String, byte[]> for product values on the non-blocking read path.
+     *
+     * @param connectionFactory Reactive Redis connection factory (Lettuce)
+     * @return ReactiveRedisTemplate with string keys and raw byte values
+     */
+    @Bean
+    @ConditionalOnProperty(name = "gateway.execution-mode", havingValue = "reactive")
+    public ReactiveRedisTemplate<String, byte[]> reactiveProductRedisTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        return reactiveProductTemplate(connectionFactory);
+    }
+
+    /** Product value template on any connection factory; also used for the nodes of a sharded setup. */
+    public static RedisTemplate<String, byte[]> productTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /** Reactive product value template on any connection factory. */
+    public static ReactiveRedisTemplate<String, byte[]> reactiveProductTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(new StringRedisSerializer())
+                .value(RedisSerializer.byteArray())
+                .hashValue(RedisSerializer.byteArray())
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
 }
@@ -1,10 +1,14 @@
 package com.cachegateway.controller;
 
+import com.cachegateway.dto.ProductLookupResult;
 import com.cachegateway.service.CacheService;
 import commonlibs.dto.ProductDTO;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -17,9 +21,12 @@ import java.util.concurrent.CompletableFuture;
 public class CacheController {
 
     private final CacheService cacheService;
+    private final int maxBatchSize;
 
-    public CacheController(CacheService cacheService) {
+    public CacheController(CacheService cacheService,
+                           @Value("${gateway.batch.max-ids:500}") int maxBatchSize) {
         this.cacheService = cacheService;
+        this.maxBatchSize = maxBatchSize;
     }
 
     /**
@@ -43,4 +50,26 @@ public class CacheController {
                     }
                 });
     }
+
+    /**
+     * Fetches several entities at once (e.g. {@code GET /cache/shop/products?ids=1,2,3}).
+     * <p>
+     * The response has one entry per requested ID, in request order, each marked as
+     * FOUND, NOT_FOUND or UNAVAILABLE.
+     *
+     * @param namespace The cache namespace
+     * @param entity    The entity type (e.g., "products")
+     * @param ids       The entity IDs
+     * @return CompletableFuture of ResponseEntity with the ordered lookup results
+     */
+    @GetMapping(value = "/{namespace}/{entity}", params = "ids")
+    public CompletableFuture<ResponseEntity<List<ProductLookupResult>>> getManyFromCache(@PathVariable String namespace,
+                                                                                        @PathVariable String entity,
+                                                                                        @RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > maxBatchSize || ids.stream().anyMatch(Objects::isNull)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return cacheService.getProductsAsync(namespace, entity, ids)
+                .thenApply(ResponseEntity::ok);
+    }
 }
@@ -0,0 +1,27 @@
+package com.cachegateway.dto;
+
+import commonlibs.dto.ProductDTO;
+
+/**
+ * One entry of a multi-get response, in the position of the requested ID.
+ *
+ * @param id      the requested product ID
+ * @param status  whether the product was found, does not exist, or could not be fetched
+ * @param product the product, or null unless status is {@link Status#FOUND}
+ */
+public record ProductLookupResult(Long id, Status status, ProductDTO product) {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        UNAVAILABLE   // fetch timed out or was shed
+    }
+
+    public static ProductLookupResult of(Long id, ProductDTO product) {
+        return new ProductLookupResult(id, product != null ? Status.FOUND : Status.NOT_FOUND, product);
+    }
+
+    public static ProductLookupResult unavailable(Long id) {
+        return new ProductLookupResult(id, Status.UNAVAILABLE, null);
+    }
+}
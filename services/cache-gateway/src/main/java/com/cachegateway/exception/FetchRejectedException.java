@@ -0,0 +1,21 @@
+package com.cachegateway.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Raised when a cache miss is shed because the gateway already has too many outstanding fetches,
+ * the adaptive fetch limit is reached, or the circuit to db-fetcher is open; also when the fetch request
+ * could not be sent to Kafka.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class FetchRejectedException extends RuntimeException {
+
+    public FetchRejectedException(String message) {
+        super(message);
+    }
+
+    public FetchRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
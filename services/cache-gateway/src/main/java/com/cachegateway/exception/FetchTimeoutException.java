@@ -0,0 +1,15 @@
+package com.cachegateway.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Raised when db-fetcher does not answer a fetch request before the namespace deadline.
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class FetchTimeoutException extends RuntimeException {
+
+    public FetchTimeoutException(String message) {
+        super(message);
+    }
+}
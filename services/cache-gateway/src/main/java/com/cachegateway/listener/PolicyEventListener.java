@@ -1,70 +1,72 @@
 package com.cachegateway.listener;
 
-import commonlibs.cache.policy.Policy;
-import commonlibs.cache.policy.PolicyRegistry;
+import com.cachegateway.cache.NamespaceGenerations;
+import com.cachegateway.cache.NamespaceSweeper;
+import com.cachegateway.cache.NearCacheManager;
+import com.cachegateway.service.CacheWarmer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
-
 /**
- * Kafka listener for cache policy updates and namespace invalidations.
+ * Kafka listener for namespace invalidations and warm-ups.
  *
  * <p>
- * Listens for events from Kafka topics and updates the PolicyRegistry
- * or invalidates Redis keys accordingly.
+ * Listens for events from Kafka topics and invalidates or warms the namespace accordingly.
+ * Policy updates are applied by {@link PolicyUpdateFeed}.
  */
 @Service
 @Slf4j
 public class PolicyEventListener {
 
-    private final PolicyRegistry policyRegistry;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final NamespaceGenerations generations;
+    private final NamespaceSweeper sweeper;
+    private final NearCacheManager nearCache;
+    private final CacheWarmer warmer;
 
-    public PolicyEventListener(PolicyRegistry policyRegistry, RedisTemplate<String, Object> redisTemplate) {
-        this.policyRegistry = policyRegistry;
-        this.redisTemplate = redisTemplate;
+    public PolicyEventListener(NamespaceGenerations generations,
+                               NamespaceSweeper sweeper,
+                               NearCacheManager nearCache,
+                               CacheWarmer warmer) {
+        this.generations = generations;
+        this.sweeper = sweeper;
+        this.nearCache = nearCache;
+        this.warmer = warmer;
     }
 
     /**
-     * Handles updates to cache policies for a namespace.
+     * Handles namespace invalidation events.
+     * Moves the namespace to a new key generation (a single Redis INCR) and clears its near cache.
+     * Entries of older generations age out through their TTL, or are reclaimed by the sweeper
+     * (on every shard when {@code gateway.redis.sharding} is enabled).
      *
-     * @param policy    the updated policy object
-     * @param namespace the namespace key from the Kafka message
+     * @param namespace the namespace to invalidate
      */
     @KafkaListener(
-            topics = "cache.policy.updates",
-            groupId = "cache-gateway-policy-group",
-            containerFactory = "policyKafkaListenerContainerFactory"
+            topics = "cache.namespace.invalidate",
+            groupId = "cache-gateway-invalidate-group",
+            containerFactory = "stringKafkaListenerContainerFactory"
     )
-    public void handlePolicyUpdate(Policy policy,
-                                   @Header(KafkaHeaders.RECEIVED_KEY) String namespace) {
-        policyRegistry.updatePolicy(namespace, policy);
-        log.info("[GATEWAY] Policy updated via Kafka for namespace={}", namespace);
+    public void handleInvalidate(String namespace) {
+        long generation = generations.bump(namespace);
+        nearCache.invalidate(namespace);
+        sweeper.schedule(namespace);
+        log.info("[GATEWAY] Namespace invalidated via Kafka: {} (now at generation {})", namespace, generation);
     }
 
     /**
-     * Handles namespace invalidation events.
-     * Deletes all Redis keys for the given namespace.
+     * Handles warm-up requests: replays this instance's hot-key snapshot into Redis.
+     * Redis is shared, so a single gateway in the group does the work.
      *
-     * @param namespace the namespace to invalidate
+     * @param namespace the namespace to warm, or {@code *} for every namespace in the snapshot
      */
     @KafkaListener(
-            topics = "cache.namespace.invalidate",
-            groupId = "cache-gateway-invalidate-group",
+            topics = "cache.namespace.warmup",
+            groupId = "cache-gateway-warmup-group",
             containerFactory = "stringKafkaListenerContainerFactory"
     )
-    public void handleInvalidate(String namespace) {
-        String pattern = namespace + ":*";
-        Set<String> keys = redisTemplate.keys(pattern);
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
-        }
-        log.info("[GATEWAY] Namespace invalidated via Kafka: {} ({} keys removed)",
-                namespace, keys != null ? keys.size() : 0);
+    public void handleWarmup(String namespace) {
+        warmer.warmUp("*".equals(namespace) ? null : namespace);
+        log.info("[GATEWAY] Warm-up requested via Kafka for namespace={}", namespace);
     }
 }
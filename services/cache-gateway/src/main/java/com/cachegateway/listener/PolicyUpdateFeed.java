@@ -0,0 +1,210 @@
+package com.cachegateway.listener;
+
+import com.cachegateway.cache.NearCacheManager;
+import commonlibs.cache.policy.Policy;
+import commonlibs.cache.policy.PolicyRegistry;
+import commonlibs.cache.policy.PolicySnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RecordDeserializationException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps the {@link PolicyRegistry} in step with the compacted {@code cache.policy.updates} topic.
+ * <p>
+ * The topic holds the latest runtime policy per namespace (keyed by namespace; a null value removes it).
+ * On startup the feed reads it from the beginning up to the end offsets of that moment and installs the
+ * result as one registry snapshot; the application runner waits for that, so the instance is not ready
+ * until it serves with the same policies as the gateways already running. The feed then follows the topic
+ * and applies each update as it arrives, clearing the namespace's near cache.
+ * <p>
+ * Every gateway reads all partitions itself, without a consumer group, so each one sees every update.
+ * If the topic cannot be read within {@code gateway.policy.bootstrap-timeout-ms}, startup goes on with
+ * the configured policies and the runtime ones are installed once the topic becomes readable.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PolicyUpdateFeed implements ApplicationRunner {
+
+    private static final String TOPIC = "cache.policy.updates";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final long RETRY_MS = 5_000;
+
+    private final ConsumerFactory<String, Policy> consumerFactory;
+    private final PolicyRegistry policyRegistry;
+    private final NearCacheManager nearCache;
+    private final long bootstrapTimeoutMs;
+    private final CompletableFuture<Void> bootstrapped = new CompletableFuture<>();
+    private final Thread thread = new Thread(this::follow, "policy-feed");
+    private volatile Consumer<String, Policy> consumer;
+    private volatile boolean running = true;
+
+    public PolicyUpdateFeed(ConsumerFactory<String, Policy> policyConsumerFactory,
+                            PolicyRegistry policyRegistry,
+                            NearCacheManager nearCache,
+                            @Value("${gateway.policy.bootstrap-timeout-ms:10000}") long bootstrapTimeoutMs) {
+        this.consumerFactory = policyConsumerFactory;
+        this.policyRegistry = policyRegistry;
+        this.nearCache = nearCache;
+        this.bootstrapTimeoutMs = bootstrapTimeoutMs;
+        thread.setDaemon(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        thread.start();
+        try {
+            bootstrapped.get(bootstrapTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("[POLICY] {} not read within {} ms, serving with configured policies until it is",
+                    TOPIC, bootstrapTimeoutMs);
+        } catch (ExecutionException e) {
+            log.warn("[POLICY] Reading {} failed, serving with configured policies", TOPIC, e.getCause());
+        }
+    }
+
+    /** Reads the topic to its end, installs it, then applies updates until stopped; reconnects on errors. */
+    private void follow() {
+        while (running) {
+            try (Consumer<String, Policy> opened = consumerFactory.createConsumer()) {
+                consumer = opened;
+                List<TopicPartition> partitions = partitions(opened);
+                if (partitions.isEmpty()) {
+                    log.info("[POLICY] Topic {} does not exist yet, retrying in {} ms", TOPIC, RETRY_MS);
+                } else {
+                    opened.assign(partitions);
+                    opened.seekToBeginning(partitions);
+                    install(readToEnd(opened, partitions));
+                    bootstrapped.complete(null);
+                    while (running) {
+                        poll(opened, this::apply);
+                    }
+                }
+            } catch (WakeupException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("[POLICY] Reading {} failed, retrying in {} ms", TOPIC, RETRY_MS, e);
+            } finally {
+                consumer = null;
+            }
+            pause();
+        }
+    }
+
+    private List<TopicPartition> partitions(Consumer<String, Policy> opened) {
+        List<PartitionInfo> infos = opened.partitionsFor(TOPIC, Duration.ofMillis(bootstrapTimeoutMs));
+        return infos == null ? List.of() : infos.stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .toList();
+    }
+
+    /** Latest runtime policy per namespace, from the beginning of the topic up to its current end. */
+    private Map<String, Policy> readToEnd(Consumer<String, Policy> opened, List<TopicPartition> partitions) {
+        Map<TopicPartition, Long> endOffsets = opened.endOffsets(partitions);
+        Map<String, Policy> latest = new HashMap<>();
+        while (running && !reached(opened, endOffsets)) {
+            poll(opened, (namespace, policy) -> {
+                if (policy != null) {
+                    latest.put(namespace, policy);
+                } else {
+                    latest.remove(namespace);
+                }
+            });
+        }
+        return latest;
+    }
+
+    private static boolean reached(Consumer<String, Policy> opened, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (opened.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Polls once and hands over every keyed record; a record that cannot be read is logged and skipped. */
+    private void poll(Consumer<String, Policy> opened, BiConsumer<String, Policy> handler) {
+        try {
+            for (ConsumerRecord<String, Policy> record : opened.poll(POLL_TIMEOUT)) {
+                if (record.key() != null) {
+                    handler.accept(record.key(), record.value());
+                }
+            }
+        } catch (RecordDeserializationException e) {
+            log.warn("[POLICY] Skipping unreadable record {}@{}", e.topicPartition(), e.offset(), e);
+            opened.seek(e.topicPartition(), e.offset() + 1);
+        }
+    }
+
+    private void install(Map<String, Policy> policies) {
+        Map<String, Policy> before = policyRegistry.snapshot().runtimePolicies();
+        PolicySnapshot installed = policyRegistry.replaceRuntimePolicies(policies);
+        Set<String> namespaces = new HashSet<>(before.keySet());
+        namespaces.addAll(policies.keySet());
+        namespaces.stream()
+                .filter(namespace -> !Objects.equals(before.get(namespace), policies.get(namespace)))
+                .forEach(nearCache::invalidate);
+        log.info("[POLICY] Installed {} runtime policies from {} (registry version {})",
+                policies.size(), TOPIC, installed.version());
+    }
+
+    private void apply(String namespace, Policy policy) {
+        if (policy != null) {
+            policyRegistry.updatePolicy(namespace, policy);
+            log.info("[GATEWAY] Policy updated via Kafka for namespace={}", namespace);
+        } else {
+            policyRegistry.removePolicy(namespace);
+            log.info("[GATEWAY] Policy removed via Kafka for namespace={}", namespace);
+        }
+        nearCache.invalidate(namespace);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RETRY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        Consumer<String, Policy> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
@@ -0,0 +1,29 @@
+package com.cachegateway.listener;
+
+import com.cachegateway.service.CacheService;
+import commonlibs.kafka.messages.ProductChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka listener for per-product change events published by db-fetcher.
+ * <p>
+ * Consumes in a group shared by all gateway replicas, since Redis is shared too: each change is
+ * applied to Redis once. Near caches are handled by {@link ReplicaInvalidationListener}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductChangeListener {
+
+    private final CacheService cacheService;
+
+    @KafkaListener(
+            topics = "db.product.changes",
+            groupId = "cache-gateway-change-group",
+            containerFactory = "changeEventListenerFactory"
+    )
+    public void handleChange(ProductChangeEvent event) {
+        cacheService.applyChange(event);
+    }
+}
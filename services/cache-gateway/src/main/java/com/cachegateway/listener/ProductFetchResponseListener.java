@@ -1,6 +1,8 @@
 package com.cachegateway.listener;
 
+import com.cachegateway.metrics.CacheMetrics;
 import com.cachegateway.service.CacheService;
+import commonlibs.kafka.messages.ProductBatchFetchResponse;
 import commonlibs.kafka.messages.ProductFetchResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,9 +10,14 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
 /**
- * Kafka listener for handling ProductFetchResponse messages.
+ * Kafka listener for handling ProductFetchResponse and ProductBatchFetchResponse messages.
  * <p>
- * Delegates the completion of pending cache requests to {@link CacheService}.
+ * Consumes this instance's own reply topics ({@link com.cachegateway.service.ReplyTopics}) in a
+ * per-instance consumer group named after the topic, so replies are never load-balanced to a replica
+ * that does not hold the pending future, and a restart rejoins the same group.
+ * <p>
+ * Delegates the completion of pending cache requests to {@link CacheService}; completing a
+ * pending entry records the fetch round-trip, responses nobody was waiting for are counted.
  */
 @Slf4j
 @Component
@@ -18,17 +25,41 @@ import org.springframework.stereotype.Component;
 public class ProductFetchResponseListener {
 
     private final CacheService cacheService;
+    private final CacheMetrics metrics;
 
     /**
      * Handles incoming ProductFetchResponse messages from Kafka.
      *
      * @param response The response message containing correlationId and ProductDTO
      */
-    @KafkaListener(topics = "db.fetch.responses", groupId = "cache-gateway-group")
+    @KafkaListener(
+            topics = "#{@replyTopics.single()}",
+            groupId = "#{@replyTopics.groupOf(@replyTopics.single())}",
+            containerFactory = "responseListenerFactory"
+    )
     public void handle(ProductFetchResponse response) {
         boolean handled = cacheService.completePendingRequest(response);
         if (!handled) {
+            metrics.recordUnmatchedResponse("db.fetch.responses");
             log.warn("Received response with unknown correlationId={}", response.getCorrelationId());
         }
     }
+
+    /**
+     * Handles incoming ProductBatchFetchResponse messages from Kafka.
+     *
+     * @param response The response message containing correlationId and the fetched ProductDTOs
+     */
+    @KafkaListener(
+            topics = "#{@replyTopics.batch()}",
+            groupId = "#{@replyTopics.groupOf(@replyTopics.batch())}",
+            containerFactory = "batchResponseListenerFactory"
+    )
+    public void handleBatch(ProductBatchFetchResponse response) {
+        int completed = cacheService.completePendingBatch(response);
+        if (completed == 0) {
+            metrics.recordUnmatchedResponse("db.fetch.batch.responses");
+            log.warn("Received batch response with unknown correlationId={}", response.getCorrelationId());
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package com.cachegateway.listener;
+
+import com.cachegateway.cache.CacheKeys;
+import com.cachegateway.cache.NamespaceGenerations;
+import com.cachegateway.cache.NearCacheManager;
+import com.cachegateway.cache.ProductIdFilter;
+import com.cachegateway.service.CacheService;
+import commonlibs.kafka.messages.ProductChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broadcast listener that keeps every gateway replica's local state coherent.
+ * <p>
+ * {@link PolicyEventListener} consumes in a shared group, so only one replica sees each event.
+ * The near cache and the cached namespace generation live on every replica, so this listener
+ * joins a consumer group of this replica alone, named after {@code gateway.reply.instance-id} so a restart
+ * resumes it instead of leaving a new group behind (a new replica starts at the latest offset), clears
+ * the local L1 and re-reads the generation on every invalidation, and drops
+ * the changed product from L1 and from this replica's in-flight fills on every product change event.
+ * Upserted IDs are also recorded in the {@link ProductIdFilter}, so a new product is never rejected by a
+ * filter built before it was committed.
+ * Policy updates reach every replica through {@link PolicyUpdateFeed}, which also clears L1.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReplicaInvalidationListener {
+
+    private final NearCacheManager nearCache;
+    private final NamespaceGenerations generations;
+    private final CacheService cacheService;
+    private final ProductIdFilter idFilter;
+
+    @KafkaListener(
+            topics = "cache.namespace.invalidate",
+            groupId = "#{@replyTopics.replicaGroup('near-cache-invalidate')}",
+            containerFactory = "stringKafkaListenerContainerFactory",
+            properties = "auto.offset.reset=latest"
+    )
+    public void handleInvalidate(String namespace) {
+        generations.refresh(namespace);
+        nearCache.invalidate(namespace);
+    }
+
+    @KafkaListener(
+            topics = "db.product.changes",
+            groupId = "#{@replyTopics.replicaGroup('near-cache-changes')}",
+            containerFactory = "changeEventListenerFactory",
+            properties = "auto.offset.reset=latest"
+    )
+    public void handleProductChange(ProductChangeEvent event) {
+        if (event.getType() == ProductChangeEvent.Type.UPSERT) {
+            idFilter.recordUpsert(event.getProductId());
+        }
+        cacheService.abandonInFlightFills(event);
+        for (String namespace : nearCache.activeNamespaces()) {
+            nearCache.evict(namespace, CacheKeys.build(namespace, generations.current(namespace),
+                    event.getEntity(), event.getProductId()));
+        }
+    }
+}
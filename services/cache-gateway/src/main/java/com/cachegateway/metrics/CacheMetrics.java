@@ -0,0 +1,243 @@
+package com.cachegateway.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Central place for Cache Gateway meters.
+ * <p>
+ * All meters are tagged with the cache namespace so dashboards can break them down
+ * per tenant. Meters recorded per request are registered once and then kept here by name and
+ * namespace (or topic), so the hot path is a map read rather than a builder and a registry lookup.
+ * <p>
+ * Timers are plain; percentiles and histogram buckets are switched on per meter prefix
+ * through {@code management.metrics.distribution.*} in the service config.
+ * <p>
+ * For the first {@code gateway.warmup.cold-start-window-ms} after startup, live lookups are also
+ * counted as {@code cache.coldstart.lookups} (result=hit|miss), which gives the cold-start miss rate.
+ */
+@Component
+public class CacheMetrics {
+
+    private static final String NAMESPACE_TAG = "namespace";
+
+    private final MeterRegistry registry;
+    private final long coldStartEndsAtNanos;
+    private final DistributionSummary batchCallers;
+    private final DistributionSummary batchKeys;
+    private final Map<String, Map<String, Counter>> counters = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coldStartHits = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coldStartMisses = new ConcurrentHashMap<>();
+    private final Map<String, Timer> sendSuccesses = new ConcurrentHashMap<>();
+    private final Map<String, Timer> sendFailures = new ConcurrentHashMap<>();
+    private final Map<String, Counter> unmatchedResponses = new ConcurrentHashMap<>();
+
+    public CacheMetrics(MeterRegistry registry,
+                        @Value("${gateway.warmup.cold-start-window-ms:300000}") long coldStartWindowMs) {
+        this.registry = registry;
+        this.coldStartEndsAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coldStartWindowMs);
+        this.batchCallers = DistributionSummary.builder("cache.redis.batch.callers").register(registry);
+        this.batchKeys = DistributionSummary.builder("cache.redis.batch.keys").register(registry);
+    }
+
+    /** A cache miss that started a new DB fetch (single-flight owner). */
+    public void recordFetchStarted(String namespace) {
+        counter("cache.fetch.started", namespace).increment();
+    }
+
+    /** A cache miss that attached to an already in-flight DB fetch for the same key. */
+    public void recordFetchCoalesced(String namespace) {
+        counter("cache.fetch.coalesced", namespace).increment();
+    }
+
+    /** A fetch whose deadline passed before db-fetcher answered. */
+    public void recordFetchExpired(String namespace) {
+        counter("cache.fetch.expired", namespace).increment();
+    }
+
+    /** A cache miss shed because too many fetches were already outstanding. */
+    public void recordFetchRejected(String namespace) {
+        counter("cache.fetch.rejected", namespace).increment();
+    }
+
+    /** A lookup served from the in-process near cache without touching Redis. */
+    public void recordNearCacheHit(String namespace) {
+        counter("cache.near.hit", namespace).increment();
+    }
+
+    /** Lookups served from Redis. */
+    public void recordHit(String namespace, int count) {
+        if (count > 0) counter("cache.hit", namespace).increment(count);
+    }
+
+    /** A Redis hit past its soft TTL, served stale while a background refresh runs. */
+    public void recordStaleHit(String namespace) {
+        counter("cache.stale", namespace).increment();
+    }
+
+    /** Fresh hits that triggered a probabilistic refresh ahead of expiry (XFetch). */
+    public void recordEarlyRefresh(String namespace) {
+        counter("cache.refresh.early", namespace).increment();
+    }
+
+    /** Lookups that found nothing in the near cache or Redis. */
+    public void recordMiss(String namespace, int count) {
+        if (count > 0) counter("cache.miss", namespace).increment(count);
+    }
+
+    /** A fetched product written back to Redis. */
+    public void recordStore(String namespace) {
+        counter("cache.store", namespace).increment();
+    }
+
+    /** Lookups answered "not found" from a cached tombstone. */
+    public void recordNegativeHit(String namespace, int count) {
+        if (count > 0) counter("cache.negative.hit", namespace).increment(count);
+    }
+
+    /** A "not found" answer from db-fetcher cached as a tombstone. */
+    public void recordNegativeStore(String namespace) {
+        counter("cache.negative.store", namespace).increment();
+    }
+
+    /** Lookups answered "not found" because the ID filter has never seen the ID. */
+    public void recordFilterRejected(String namespace, int count) {
+        if (count > 0) counter("cache.filter.rejected", namespace).increment(count);
+    }
+
+    /** A product change event applied to the namespace's Redis entry. */
+    public void recordChangeApplied(String namespace) {
+        counter("cache.change.applied", namespace).increment();
+    }
+
+    /**
+     * Live lookups answered without (hits) or with (misses) a DB fetch, while still in the cold-start window.
+     */
+    public void recordColdStartLookups(String namespace, int hits, int misses) {
+        if (System.nanoTime() - coldStartEndsAtNanos >= 0) {
+            return;
+        }
+        if (hits > 0) coldStartCounter(coldStartHits, namespace, "hit").increment(hits);
+        if (misses > 0) coldStartCounter(coldStartMisses, namespace, "miss").increment(misses);
+    }
+
+    /** One warm-up pass over a namespace's snapshot. */
+    public void recordWarmup(String namespace, int found, int notFound, int unavailable, long nanos) {
+        Timer.builder("cache.warmup.duration").tag(NAMESPACE_TAG, namespace).register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        warmupCounter(namespace, "found").increment(found);
+        warmupCounter(namespace, "not_found").increment(notFound);
+        warmupCounter(namespace, "unavailable").increment(unavailable);
+    }
+
+    /** Latency of one Redis GET. */
+    public void recordRedisGet(String namespace, long nanos) {
+        timer("cache.redis.get", namespace).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Latency of one Redis MGET. */
+    public void recordRedisMultiGet(String namespace, long nanos) {
+        timer("cache.redis.mget", namespace).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** One flush of micro-batched GETs: how many callers it served and how many keys went into the MGET. */
+    public void recordRedisBatch(int callers, int keys) {
+        batchCallers.record(callers);
+        batchKeys.record(keys);
+    }
+
+    /** Time from registering a fetch to receiving its db-fetcher response over Kafka. */
+    public void recordFetchRoundTrip(String namespace, long nanos) {
+        timer("cache.fetch.roundtrip", namespace).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Time until the broker acknowledged a fetch request; not namespaced, the request does not carry one. */
+    public void recordRequestSend(String topic, long nanos, boolean success) {
+        sendTimer(success ? sendSuccesses : sendFailures, topic, success ? "success" : "failure")
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** A response whose correlationId is not pending here (expired, or owned by another replica). */
+    public void recordUnmatchedResponse(String topic) {
+        Counter counter = unmatchedResponses.get(topic);
+        if (counter == null) {
+            counter = unmatchedResponses.computeIfAbsent(topic, t -> Counter.builder("cache.fetch.response.unmatched")
+                    .tag("topic", t)
+                    .register(registry));
+        }
+        counter.increment();
+    }
+
+    /** Registers a gauge that samples {@code value} on every scrape. */
+    public <T> void gauge(String name, T target, ToDoubleFunction<T> value) {
+        Gauge.builder(name, target, value).register(registry);
+    }
+
+    private Counter coldStartCounter(Map<String, Counter> byNamespace, String namespace, String result) {
+        Counter counter = byNamespace.get(namespace);
+        if (counter == null) {
+            counter = byNamespace.computeIfAbsent(namespace, ns -> Counter.builder("cache.coldstart.lookups")
+                    .tag(NAMESPACE_TAG, ns)
+                    .tag("result", result)
+                    .register(registry));
+        }
+        return counter;
+    }
+
+    private Timer sendTimer(Map<String, Timer> byTopic, String topic, String outcome) {
+        Timer timer = byTopic.get(topic);
+        if (timer == null) {
+            timer = byTopic.computeIfAbsent(topic, t -> Timer.builder("cache.fetch.send")
+                    .tag("topic", t)
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+        return timer;
+    }
+
+    private Counter warmupCounter(String namespace, String result) {
+        return Counter.builder("cache.warmup.keys")
+                .tag(NAMESPACE_TAG, namespace)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Timer timer(String name, String namespace) {
+        Map<String, Timer> byNamespace = timers.get(name);
+        if (byNamespace == null) {
+            byNamespace = timers.computeIfAbsent(name, n -> new ConcurrentHashMap<>());
+        }
+        Timer timer = byNamespace.get(namespace);
+        if (timer == null) {
+            timer = byNamespace.computeIfAbsent(namespace, ns -> Timer.builder(name)
+                    .tag(NAMESPACE_TAG, ns)
+                    .register(registry));
+        }
+        return timer;
+    }
+
+    private Counter counter(String name, String namespace) {
+        Map<String, Counter> byNamespace = counters.get(name);
+        if (byNamespace == null) {
+            byNamespace = counters.computeIfAbsent(name, n -> new ConcurrentHashMap<>());
+        }
+        Counter counter = byNamespace.get(namespace);
+        if (counter == null) {
+            counter = byNamespace.computeIfAbsent(namespace, ns -> Counter.builder(name)
+                    .tag(NAMESPACE_TAG, ns)
+                    .register(registry));
+        }
+        return counter;
+    }
+}
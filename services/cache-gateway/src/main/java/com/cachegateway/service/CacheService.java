@@ -1,43 +1,97 @@
 package com.cachegateway.service;
 
+import com.cachegateway.cache.CacheKeys;
+import com.cachegateway.cache.HotKeyTracker;
+import com.cachegateway.cache.NamespaceGenerations;
+import com.cachegateway.cache.NearCacheManager;
+import com.cachegateway.cache.ProductIdFilter;
+import com.cachegateway.cache.ProductStore;
+import com.cachegateway.codec.CachedValue;
+import com.cachegateway.codec.ValueCodecs;
+import com.cachegateway.dto.ProductLookupResult;
+import com.cachegateway.exception.FetchRejectedException;
+import com.cachegateway.metrics.CacheMetrics;
 import commonlibs.cache.policy.Policy;
 import commonlibs.cache.policy.PolicyRegistry;
 import commonlibs.dto.ProductDTO;
+import commonlibs.kafka.messages.ProductBatchFetchRequest;
+import commonlibs.kafka.messages.ProductBatchFetchResponse;
+import commonlibs.kafka.messages.ProductChangeEvent;
 import commonlibs.kafka.messages.ProductFetchRequest;
 import commonlibs.kafka.messages.ProductFetchResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class CacheService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final ProductStore store;
+    private final ValueCodecs codecs;
     private final PolicyRegistry policyRegistry;
     private final ProductFetchRequestGateway requestGateway;
+    private final NearCacheManager nearCache;
+    private final NamespaceGenerations generations;
+    private final ProductIdFilter idFilter;
+    private final HotKeyTracker hotKeys;
+    private final CacheMetrics metrics;
 
-    // Track pending requests by correlationId
-    private final Map<String, CompletableFuture<ProductDTO>> pendingRequests = new ConcurrentHashMap<>();
+    // Track pending requests by correlationId, with deadlines and a hard cap
+    private final PendingRequestTable pendingRequests;
 
-    public CacheService(RedisTemplate<String, Object> redisTemplate,
+    // Single-flight: one in-flight DB fetch per cache key, shared by all concurrent misses
+    private final Map<String, CompletableFuture<ProductDTO>> inFlightFetches = new ConcurrentHashMap<>();
+
+    // Recent fetch duration per namespace (moving average), stamped on values written from change events
+    private final Map<String, Long> fetchMillisEstimates = new ConcurrentHashMap<>();
+
+    public CacheService(ProductStore store,
+                        ValueCodecs codecs,
                         PolicyRegistry policyRegistry,
-                        ProductFetchRequestGateway requestGateway) {
-        this.redisTemplate = redisTemplate;
+                        ProductFetchRequestGateway requestGateway,
+                        PendingRequestTable pendingRequests,
+                        NearCacheManager nearCache,
+                        NamespaceGenerations generations,
+                        ProductIdFilter idFilter,
+                        HotKeyTracker hotKeys,
+                        CacheMetrics metrics) {
+        this.store = store;
+        this.codecs = codecs;
         this.policyRegistry = policyRegistry;
         this.requestGateway = requestGateway;
+        this.pendingRequests = pendingRequests;
+        this.nearCache = nearCache;
+        this.generations = generations;
+        this.idFilter = idFilter;
+        this.hotKeys = hotKeys;
+        this.metrics = metrics;
+        metrics.gauge("cache.fetch.inflight", inFlightFetches, Map::size);
     }
 
     /**
      * Non-blocking fetch: returns a CompletableFuture immediately.
-     * If cache hit occurs, future is completed immediately.
+     * If cache hit occurs (near cache first, then Redis), future is completed as soon as the value is read;
+     * with {@code gateway.execution-mode=reactive} the calling thread does not wait for Redis.
      * If cache miss, sends Kafka request and completes future on response.
+     * Concurrent misses for the same key share a single Kafka request.
+     * <p>
+     * With a soft TTL on the namespace {@link Policy}, a value past its soft TTL is still returned
+     * at once, and a single background fetch refreshes it; the hard TTL bounds how stale it can get.
+     * <p>
+     * A product that does not exist completes with null. That answer is cached as a tombstone for
+     * the policy's negative TTL, and IDs rejected by the {@link ProductIdFilter} never leave the gateway.
      *
      * @param namespace Cache namespace
      * @param entity    Entity type (e.g., "products")
@@ -47,35 +101,189 @@ public class CacheService {
     public CompletableFuture<ProductDTO> getProductAsync(String namespace, String entity, Long id) {
         String key = buildKey(namespace, entity, id);
         Policy policy = policyRegistry.getPolicy(namespace);
+        hotKeys.record(namespace, entity, id);
 
-        Object cachedValue = redisTemplate.opsForValue().get(key);
-        if (cachedValue instanceof ProductDTO product) {
-            log.info("[CACHE-HIT] key={}", key);
-            return CompletableFuture.completedFuture(product);
+        ProductDTO local = nearCache.get(namespace, key);
+        if (local != null) {
+            metrics.recordNearCacheHit(namespace);
+            metrics.recordColdStartLookups(namespace, 1, 0);
+            log.debug("[NEAR-CACHE-HIT] key={}", key);
+            return CompletableFuture.completedFuture(local);
+        }
+        if (!idFilter.mightExist(id)) {
+            metrics.recordFilterRejected(namespace, 1);
+            metrics.recordColdStartLookups(namespace, 1, 0);
+            return CompletableFuture.completedFuture(null);
         }
 
-        log.info("[CACHE-MISS] key={}, sending Kafka fetch request...", key);
+        long started = System.nanoTime();
+        return store.get(key).thenCompose(bytes -> {
+            metrics.recordRedisGet(namespace, System.nanoTime() - started);
+            CachedValue cached = codecs.decodeEntry(bytes);
+            if (cached != null && cached.isNotFound()) {
+                metrics.recordNegativeHit(namespace, 1);
+                metrics.recordColdStartLookups(namespace, 1, 0);
+                return CompletableFuture.completedFuture(null);
+            }
+            if (cached != null) {
+                metrics.recordHit(namespace, 1);
+                metrics.recordColdStartLookups(namespace, 1, 0);
+                serveCached(namespace, key, id, cached, policy);
+                return CompletableFuture.completedFuture(cached.product());
+            }
+            metrics.recordMiss(namespace, 1);
+            metrics.recordColdStartLookups(namespace, 0, 1);
+            return fetchOnMiss(namespace, key, id, policy);
+        });
+    }
 
-        String correlationId = UUID.randomUUID().toString();
+    /** Starts (or joins) the DB fetch for a key that missed in Redis. */
+    private CompletableFuture<ProductDTO> fetchOnMiss(String namespace, String key, Long id, Policy policy) {
+        // Single-flight: the first miss owns the fetch, later misses attach to it
         CompletableFuture<ProductDTO> future = new CompletableFuture<>();
-        pendingRequests.put(correlationId, future);
+        CompletableFuture<ProductDTO> inFlight = inFlightFetches.putIfAbsent(key, future);
+        if (inFlight != null) {
+            metrics.recordFetchCoalesced(namespace);
+            log.debug("[CACHE-MISS] key={}, joined in-flight fetch", key);
+            return inFlight.copy();
+        }
+        sendFetch(namespace, key, id, future, policy);
 
-        ProductFetchRequest request = new ProductFetchRequest(correlationId, id);
-        requestGateway.sendRequest(request);
+        // Callers get their own view so cancelling one response cannot fail the shared fetch
+        return future.copy();
+    }
 
-        // Complete future asynchronously when cache is updated
-        future.thenAccept(product -> {
-            if (product != null) {
-                redisTemplate.opsForValue().set(key, product, Duration.ofSeconds(policy.ttlSeconds()));
-                log.info("[CACHE-STORE] key={} stored in Redis with TTL={}s", key, policy.ttlSeconds());
+    /**
+     * Mirrors a fresh Redis hit into L1, or starts a background refresh for a stale one or one
+     * picked for early refresh (XFetch).
+     */
+    private void serveCached(String namespace, String key, Long id, CachedValue cached, Policy policy) {
+        long now = System.currentTimeMillis();
+        if (cached.isStale(now)) {
+            metrics.recordStaleHit(namespace);
+            log.debug("[CACHE-STALE] key={}, serving stale value", key);
+        } else if (cached.isDueForEarlyRefresh(now, policy.earlyRefreshBeta())) {
+            metrics.recordEarlyRefresh(namespace);
+            log.debug("[CACHE-EARLY-REFRESH] key={}, refreshing ahead of expiry", key);
+        } else {
+            log.debug("[CACHE-HIT] key={}", key);
+            nearCache.put(namespace, key, cached.product(), policy, cached.refreshAtMillis());
+            return;
+        }
+
+        // At most one refresh per key: if any fetch is in flight, it will rewrite the value
+        CompletableFuture<ProductDTO> refresh = new CompletableFuture<>();
+        if (inFlightFetches.putIfAbsent(key, refresh) == null) {
+            sendFetch(namespace, key, id, refresh, policy);
+        }
+    }
+
+    /** Registers an owned single-key fetch and sends it to db-fetcher. */
+    private void sendFetch(String namespace, String key, Long id, CompletableFuture<ProductDTO> future, Policy policy) {
+        String correlationId = UUID.randomUUID().toString();
+        if (registerFetch(namespace, key, correlationId, future, policy, pendingRequests.acquire(1))) {
+            requestGateway.sendRequest(new ProductFetchRequest(correlationId, id));
+        }
+    }
+
+    /**
+     * Multi-get: resolves all IDs with one Redis MGET and at most one batch Kafka request.
+     * <p>
+     * Near-cache hits are served first, the rest are read with a single MGET, and the
+     * remaining misses (minus those already in flight) go to db-fetcher as one
+     * {@link ProductBatchFetchRequest}. The result keeps the requested order; an individual
+     * fetch that times out or is shed is reported as unavailable instead of failing the batch.
+     *
+     * @param namespace Cache namespace
+     * @param entity    Entity type (e.g., "products")
+     * @param ids       Product IDs, in the order the caller wants them back
+     * @return CompletableFuture of one lookup result per requested ID
+     */
+    public CompletableFuture<List<ProductLookupResult>> getProductsAsync(String namespace, String entity, List<Long> ids) {
+        return lookupMany(namespace, entity, ids, true);
+    }
+
+    /**
+     * Loads the IDs into Redis the way a multi-get would, without counting them as live traffic
+     * (no hot-key tracking, no cold-start accounting). Used to replay hot-key snapshots.
+     */
+    public CompletableFuture<List<ProductLookupResult>> warmUp(String namespace, String entity, List<Long> ids) {
+        return lookupMany(namespace, entity, ids, false);
+    }
+
+    private CompletableFuture<List<ProductLookupResult>> lookupMany(String namespace, String entity, List<Long> ids,
+                                                                    boolean live) {
+        Policy policy = policyRegistry.getPolicy(namespace);
+        Map<Long, CompletableFuture<ProductDTO>> results = new LinkedHashMap<>();
+
+        List<Long> redisIds = new ArrayList<>();
+        List<String> redisKeys = new ArrayList<>();
+        int rejected = 0;
+        for (Long id : new LinkedHashSet<>(ids)) {
+            if (live) {
+                hotKeys.record(namespace, entity, id);
+            }
+            if (!idFilter.mightExist(id)) {
+                rejected++;
+                results.put(id, CompletableFuture.completedFuture(null));
+                continue;
+            }
+            String key = buildKey(namespace, entity, id);
+            ProductDTO local = nearCache.get(namespace, key);
+            if (local != null) {
+                metrics.recordNearCacheHit(namespace);
+                results.put(id, CompletableFuture.completedFuture(local));
+            } else {
+                redisIds.add(id);
+                redisKeys.add(key);
             }
-        }).exceptionally(ex -> {
-            pendingRequests.remove(correlationId);
-            log.error("Failed to fetch product for correlationId={}", correlationId, ex);
-            return null;
+        }
+
+        metrics.recordFilterRejected(namespace, rejected);
+
+        if (redisKeys.isEmpty()) {
+            if (live) metrics.recordColdStartLookups(namespace, results.size(), 0);
+            return collect(ids, results);
+        }
+
+        long started = System.nanoTime();
+        return store.multiGet(redisKeys).thenCompose(values -> {
+            metrics.recordRedisMultiGet(namespace, System.nanoTime() - started);
+            List<Long> missIds = new ArrayList<>();
+            List<String> missKeys = new ArrayList<>();
+            int notFound = 0;
+            for (int i = 0; i < redisKeys.size(); i++) {
+                CachedValue cached = codecs.decodeEntry(values != null ? values.get(i) : null);
+                if (cached != null && cached.isNotFound()) {
+                    notFound++;
+                    results.put(redisIds.get(i), CompletableFuture.completedFuture(null));
+                } else if (cached != null) {
+                    serveCached(namespace, redisKeys.get(i), redisIds.get(i), cached, policy);
+                    results.put(redisIds.get(i), CompletableFuture.completedFuture(cached.product()));
+                } else {
+                    missIds.add(redisIds.get(i));
+                    missKeys.add(redisKeys.get(i));
+                }
+            }
+            metrics.recordNegativeHit(namespace, notFound);
+            metrics.recordHit(namespace, redisKeys.size() - missIds.size() - notFound);
+            metrics.recordMiss(namespace, missIds.size());
+            if (live) metrics.recordColdStartLookups(namespace, results.size(), missIds.size());
+            log.debug("[CACHE-MGET] namespace={} keys={} misses={}", namespace, redisKeys.size(), missIds.size());
+            fetchBatch(namespace, missIds, missKeys, policy, results);
+            return collect(ids, results);
         });
+    }
 
-        return future;
+    /** Waits for every lookup and lays the results out in the requested order. */
+    private CompletableFuture<List<ProductLookupResult>> collect(List<Long> ids,
+                                                                 Map<Long, CompletableFuture<ProductDTO>> results) {
+        Map<Long, CompletableFuture<ProductLookupResult>> lookups = new LinkedHashMap<>();
+        results.forEach((id, f) -> lookups.put(id, f.handle((product, ex) ->
+                ex == null ? ProductLookupResult.of(id, product) : ProductLookupResult.unavailable(id))));
+
+        return CompletableFuture.allOf(lookups.values().toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> ids.stream().map(id -> lookups.get(id).join()).toList());
     }
 
     /**
@@ -83,9 +291,7 @@ public class CacheService {
      * Completes the corresponding pending future if exists.
      */
     public boolean completePendingRequest(ProductFetchResponse response) {
-        var future = pendingRequests.remove(response.getCorrelationId());
-        if (future != null) {
-            future.complete(response.getProduct());
+        if (pendingRequests.complete(response.getCorrelationId(), response.getProduct())) {
             return true;
         } else {
             log.warn("Late or unknown response received for correlationId={}", response.getCorrelationId());
@@ -93,7 +299,208 @@ public class CacheService {
         }
     }
 
+    /**
+     * Called by Kafka listener when a batch response arrives.
+     * Completes every pending future of the batch, with null for products that were not found.
+     *
+     * @return number of pending futures completed
+     */
+    public int completePendingBatch(ProductBatchFetchResponse response) {
+        List<Long> ids = response.getProductIds();
+        List<ProductDTO> products = response.getProducts();
+        int completed = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            ProductDTO product = products != null && i < products.size() ? products.get(i) : null;
+            if (pendingRequests.complete(PendingRequestTable.batchItemId(response.getCorrelationId(), ids.get(i)), product)) {
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Applies a product change to every namespace any gateway has served.
+     * <p>
+     * Cached copies are overwritten in place (UPSERT) or removed (DELETE; replaced by a tombstone
+     * when the namespace caches negatives). Keys that are not cached stay absent, so a change never
+     * pulls a product into namespaces that did not ask for it. Near caches are evicted separately on
+     * every replica.
+     * <p>
+     * Fetches of the product still in flight are {@link #abandonInFlightFills abandoned} first, so a
+     * value read before the change cannot be written over it afterwards.
+     * <p>
+     * No fetch produced an upserted value, so it carries the namespace's recent average fetch duration
+     * instead; that keeps early refresh (XFetch) working for products that change often.
+     *
+     * @return number of namespaces the change was applied to
+     */
+    public int applyChange(ProductChangeEvent event) {
+        Set<String> namespaces = generations.knownNamespaces();
+        abandonInFlightFills(event);
+        for (String namespace : namespaces) {
+            String key = buildKey(namespace, event.getEntity(), event.getProductId());
+            Policy policy = policyRegistry.getPolicy(namespace);
+            if (event.getType() == ProductChangeEvent.Type.UPSERT && event.getProduct() != null) {
+                Lifetime lifetime = Lifetime.of(policy, nearCache.isEnabled(namespace));
+                byte[] value = codecs.encode(namespace, event.getProduct(), lifetime.refreshAtMillis(),
+                        fetchMillisEstimates.getOrDefault(namespace, 0L));
+                store.setIfPresent(key, value, lifetime.ttl());
+            } else if (policy.negativeTtlSeconds() > 0) {
+                store.setIfPresent(key, codecs.tombstone(), Lifetime.of(policy, false).negativeTtl());
+            } else {
+                store.delete(key);
+            }
+            metrics.recordChangeApplied(namespace);
+        }
+        log.debug("[CACHE-CHANGE] {} {}:{} applied to {} namespaces",
+                event.getType(), event.getEntity(), event.getProductId(), namespaces.size());
+        return namespaces.size();
+    }
+
+    /**
+     * Detaches this replica's in-flight fetches of a changed product from their keys.
+     * <p>
+     * When such a fetch completes, it still answers its callers but deletes the value it stored
+     * instead of keeping it, since it may have read the row before the change. Later misses start
+     * a new fetch. Runs on every replica ({@link com.cachegateway.listener.ReplicaInvalidationListener})
+     * and again where the change is applied.
+     */
+    public void abandonInFlightFills(ProductChangeEvent event) {
+        for (String namespace : generations.knownNamespaces()) {
+            inFlightFetches.remove(buildKey(namespace, event.getEntity(), event.getProductId()));
+        }
+    }
+
+    /**
+     * Joins in-flight fetches where possible and sends the remaining IDs as one batch request.
+     * <p>
+     * Takes the keys built before the multi-get: in reactive mode this runs on the Redis event loop,
+     * where rebuilding them could block on a namespace generation read.
+     *
+     * @param missKeys cache key of each ID in {@code missIds}, in the same order
+     */
+    private void fetchBatch(String namespace, List<Long> missIds, List<String> missKeys, Policy policy,
+                            Map<Long, CompletableFuture<ProductDTO>> results) {
+        String batchId = UUID.randomUUID().toString();
+        List<Integer> owned = new ArrayList<>();
+        List<CompletableFuture<ProductDTO>> ownedFutures = new ArrayList<>();
+
+        for (int i = 0; i < missIds.size(); i++) {
+            CompletableFuture<ProductDTO> future = new CompletableFuture<>();
+            CompletableFuture<ProductDTO> inFlight = inFlightFetches.putIfAbsent(missKeys.get(i), future);
+            if (inFlight != null) {
+                metrics.recordFetchCoalesced(namespace);
+                results.put(missIds.get(i), inFlight.copy());
+                continue;
+            }
+            owned.add(i);
+            ownedFutures.add(future);
+        }
+        if (owned.isEmpty()) {
+            return;
+        }
+
+        // One limiter permit for the whole batch request
+        PendingRequestTable.Permit permit = pendingRequests.acquire(owned.size());
+        List<Long> ownedIds = new ArrayList<>();
+        for (int j = 0; j < owned.size(); j++) {
+            Long id = missIds.get(owned.get(j));
+            CompletableFuture<ProductDTO> future = ownedFutures.get(j);
+            if (registerFetch(namespace, missKeys.get(owned.get(j)), PendingRequestTable.batchItemId(batchId, id), future, policy, permit)) {
+                ownedIds.add(id);
+            }
+            results.put(id, future.copy());
+        }
+
+        if (!ownedIds.isEmpty()) {
+            requestGateway.sendBatchRequest(new ProductBatchFetchRequest(batchId, ownedIds));
+        }
+    }
+
+    /**
+     * Registers an owned fetch in the pending table and wires the Redis store on completion.
+     *
+     * @param permit limiter permit of the Kafka request carrying the fetch, or null if it was refused
+     * @return false if the fetch was shed (the future is already failed)
+     */
+    private boolean registerFetch(String namespace, String key, String correlationId,
+                                  CompletableFuture<ProductDTO> future, Policy policy,
+                                  PendingRequestTable.Permit permit) {
+        Duration deadline = policyRegistry.resolve(namespace).fetchTimeout();
+        if (permit == null || !pendingRequests.register(correlationId, namespace, future, deadline, permit)) {
+            metrics.recordFetchRejected(namespace);
+            log.debug("[CACHE-MISS] key={}, shed: fetch limit reached or circuit open", key);
+            inFlightFetches.remove(key, future);
+            future.completeExceptionally(new FetchRejectedException("db-fetcher is overloaded or not responding"));
+            return false;
+        }
+
+        log.debug("[CACHE-MISS] key={}, sending Kafka fetch request...", key);
+        metrics.recordFetchStarted(namespace);
+        long started = System.nanoTime();
+
+        // Store in Redis first, then release the key so later misses read the fresh value
+        future.thenAccept(product -> {
+            Lifetime lifetime = Lifetime.of(policy, nearCache.isEnabled(namespace));
+            if (product != null) {
+                long fetchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                fetchMillisEstimates.merge(namespace, fetchMillis, CacheService::smoothFetchMillis);
+                byte[] value = codecs.encode(namespace, product, lifetime.refreshAtMillis(), fetchMillis);
+                store.set(key, value, lifetime.ttl());
+                metrics.recordStore(namespace);
+                log.debug("[CACHE-STORE] key={} stored in Redis with TTL={}", key, lifetime.ttl());
+                nearCache.put(namespace, key, product, policy, lifetime.refreshAtMillis());
+            } else if (policy.negativeTtlSeconds() > 0) {
+                store.set(key, codecs.tombstone(), lifetime.negativeTtl());
+                metrics.recordNegativeStore(namespace);
+                log.debug("[CACHE-TOMBSTONE] key={} not found, cached for {}s", key, policy.negativeTtlSeconds());
+            } else {
+                return;
+            }
+            // A change event abandoned this fill while it was out: what we read may predate the change
+            if (!inFlightFetches.remove(key, future)) {
+                store.delete(key);
+                nearCache.evict(namespace, key);
+                log.debug("[CACHE-STORE] key={} changed during the fetch, fill dropped", key);
+            }
+        }).whenComplete((ignored, ex) -> {
+            inFlightFetches.remove(key, future);
+            if (ex != null) {
+                pendingRequests.discard(correlationId);
+                log.error("Failed to fetch product for correlationId={}", correlationId, ex);
+            }
+        });
+        return true;
+    }
+
+    /** Moves the estimate an eighth of the way towards the latest sample, rounding to the nearest millisecond. */
+    private static Long smoothFetchMillis(Long estimate, Long sample) {
+        return (estimate * 7 + sample + 4) / 8;
+    }
+
+    /**
+     * TTLs and refresh time of one write, shortened together by the policy's random jitter.
+     * <p>
+     * The refresh time is the soft TTL if the namespace has one. Otherwise, with early refresh on,
+     * it is the hard expiry itself, which XFetch readers then try to beat; namespaces with a near
+     * cache also record the expiry, so L1 copies never outlive the Redis entry.
+     *
+     * @param refreshAtMillis epoch millis the value becomes stale, or 0 if it never does
+     */
+    private record Lifetime(Duration ttl, Duration negativeTtl, long refreshAtMillis) {
+        static Lifetime of(Policy policy, boolean stampExpiry) {
+            double factor = policy.jitterFactor();
+            long ttlMillis = Math.round(policy.ttlSeconds() * 1000 * factor);
+            long negativeTtlMillis = Math.round(policy.negativeTtlSeconds() * 1000 * factor);
+            long now = System.currentTimeMillis();
+            long refreshAtMillis = policy.hasSoftTtl() ? now + Math.round(policy.softTtlSeconds() * 1000 * factor)
+                    : policy.hasEarlyRefresh() || stampExpiry ? now + ttlMillis
+                    : 0;
+            return new Lifetime(Duration.ofMillis(ttlMillis), Duration.ofMillis(negativeTtlMillis), refreshAtMillis);
+        }
+    }
+
     private String buildKey(String namespace, String entity, Long id) {
-        return String.format("%s:%s:%d", namespace, entity, id);
+        return CacheKeys.build(namespace, generations.current(namespace), entity, id);
     }
 }
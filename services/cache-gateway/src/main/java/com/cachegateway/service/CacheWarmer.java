@@ -0,0 +1,125 @@
+package com.cachegateway.service;
+
+import com.cachegateway.cache.HotKeySnapshots;
+import com.cachegateway.cache.HotKeyTracker.Group;
+import com.cachegateway.dto.ProductLookupResult;
+import com.cachegateway.metrics.CacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the last hot-key snapshot into Redis so a restart does not send every request to db-fetcher.
+ * <p>
+ * Runs on startup when {@code gateway.warmup.on-startup=true}, and on demand through the
+ * {@code cache.namespace.warmup} topic. IDs go through the regular multi-get path in chunks of
+ * {@code batch-size}, throttled to {@code max-keys-per-second}, so already cached IDs cost one MGET
+ * and misses become coalesced batch fetches.
+ * <p>
+ * With {@code gateway.warmup.mode=before} the startup warm-up blocks the application runner, which
+ * keeps the instance out of readiness until it finishes; {@code alongside} serves traffic meanwhile.
+ */
+@Slf4j
+@Component
+public class CacheWarmer implements ApplicationRunner {
+
+    private final CacheService cacheService;
+    private final HotKeySnapshots snapshots;
+    private final CacheMetrics metrics;
+    private final boolean onStartup;
+    private final boolean beforeTraffic;
+    private final int maxKeysPerSecond;
+    private final int batchSize;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "cache-warmer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CacheWarmer(CacheService cacheService,
+                       HotKeySnapshots snapshots,
+                       CacheMetrics metrics,
+                       @Value("${gateway.warmup.on-startup:true}") boolean onStartup,
+                       @Value("${gateway.warmup.mode:alongside}") String mode,
+                       @Value("${gateway.warmup.max-keys-per-second:2000}") int maxKeysPerSecond,
+                       @Value("${gateway.warmup.batch-size:100}") int batchSize) {
+        this.cacheService = cacheService;
+        this.snapshots = snapshots;
+        this.metrics = metrics;
+        this.onStartup = onStartup;
+        this.beforeTraffic = "before".equalsIgnoreCase(mode);
+        this.maxKeysPerSecond = Math.max(1, maxKeysPerSecond);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!onStartup) {
+            return;
+        }
+        CompletableFuture<Void> warmup = warmUp(null);
+        if (beforeTraffic) {
+            warmup.join();
+        }
+    }
+
+    /**
+     * Queues a warm-up of one namespace from the last snapshot, or of every namespace when null.
+     */
+    public CompletableFuture<Void> warmUp(String namespace) {
+        return CompletableFuture.runAsync(() -> snapshots.load().forEach((group, ids) -> {
+            if (namespace == null || namespace.equals(group.namespace())) {
+                warmUp(group, ids);
+            }
+        }), executor);
+    }
+
+    private void warmUp(Group group, List<Long> ids) {
+        long started = System.nanoTime();
+        long nanosPerKey = TimeUnit.SECONDS.toNanos(1) / maxKeysPerSecond;
+        int found = 0;
+        int notFound = 0;
+        int unavailable = 0;
+
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + batchSize));
+            long chunkStarted = System.nanoTime();
+            try {
+                for (ProductLookupResult result : cacheService.warmUp(group.namespace(), group.entity(), chunk).join()) {
+                    switch (result.status()) {
+                        case FOUND -> found++;
+                        case NOT_FOUND -> notFound++;
+                        default -> unavailable++;
+                    }
+                }
+            } catch (RuntimeException e) {
+                unavailable += chunk.size();
+                log.warn("[WARMUP] Chunk failed for namespace={} entity={}", group.namespace(), group.entity(), e);
+            }
+            long remaining = chunk.size() * nanosPerKey - (System.nanoTime() - chunkStarted);
+            if (remaining > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - started;
+        metrics.recordWarmup(group.namespace(), found, notFound, unavailable, elapsed);
+        log.info("[WARMUP] namespace={} entity={} keys={} found={} notFound={} unavailable={} in {} ms",
+                group.namespace(), group.entity(), ids.size(), found, notFound, unavailable,
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+}
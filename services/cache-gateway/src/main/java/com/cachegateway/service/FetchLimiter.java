@@ -0,0 +1,228 @@
+package com.cachegateway.service;
+
+import com.cachegateway.metrics.CacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive limit on concurrent db-fetcher round-trips, with a circuit breaker.
+ * <p>
+ * The limit follows TCP Vegas: the lowest round-trip time seen recently is taken as the no-load
+ * latency, and {@code limit * (1 - noLoadRtt / rtt)} estimates how many fetches are queued in Kafka,
+ * db-fetcher or Postgres rather than being served. While that queue stays below
+ * {@code 3 * log10(limit)} the limit grows, above {@code 6 * log10(limit)} it shrinks. A timed-out
+ * fetch cuts the limit by 10%. The limit only grows while it is actually used, so a quiet gateway
+ * does not drift to the maximum, and the no-load latency is re-measured every few thousand samples
+ * so that a permanently slower db-fetcher becomes the new baseline.
+ * <p>
+ * After {@code gateway.limiter.breaker.failure-threshold} consecutive timeouts the circuit opens and
+ * every fetch is refused for {@code open-ms}; then up to {@code half-open-probes} fetches are let
+ * through, and the circuit closes once they all succeed or reopens on the first failure.
+ * <p>
+ * Callers {@link #tryAcquire()} before sending and report exactly one of {@link #onSuccess},
+ * {@link #onFailure} or {@link #onIgnore} per acquired permit. A permit stands for one Kafka request,
+ * so a batch fetch counts once however many products it carries (see {@link PendingRequestTable.Permit}).
+ */
+@Slf4j
+@Component
+public class FetchLimiter {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final double TIMEOUT_BACKOFF = 0.9;
+    private static final int BASELINE_RESET_SAMPLES = 5_000;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger probePermits = new AtomicInteger();
+    private final AtomicInteger probeSuccesses = new AtomicInteger();
+    private volatile int limit;
+    private volatile State state = State.CLOSED;
+    private volatile long stateSinceNanos = System.nanoTime();
+
+    // Guarded by this
+    private double estimatedLimit;
+    private long noLoadRttNanos;
+    private int samplesSinceBaseline;
+
+    public FetchLimiter(CacheMetrics metrics,
+                        @Value("${gateway.limiter.enabled:true}") boolean enabled,
+                        @Value("${gateway.limiter.initial-limit:100}") int initialLimit,
+                        @Value("${gateway.limiter.min-limit:10}") int minLimit,
+                        @Value("${gateway.limiter.max-limit:2000}") int maxLimit,
+                        @Value("${gateway.limiter.smoothing:0.2}") double smoothing,
+                        @Value("${gateway.limiter.breaker.failure-threshold:20}") int failureThreshold,
+                        @Value("${gateway.limiter.breaker.open-ms:5000}") long openMs,
+                        @Value("${gateway.limiter.breaker.half-open-probes:5}") int halfOpenProbes) {
+        this.enabled = enabled;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.smoothing = smoothing;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.estimatedLimit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+        metrics.gauge("cache.fetch.limit", this, FetchLimiter::getLimit);
+        metrics.gauge("cache.fetch.circuit.open", this, l -> l.state == State.CLOSED ? 0 : 1);
+    }
+
+    /**
+     * Takes a permit for one fetch.
+     *
+     * @return false if the fetch must not be sent: the limit is reached or the circuit is open
+     */
+    public boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        State current = state;
+        if (current == State.OPEN) {
+            if (System.nanoTime() - stateSinceNanos < openNanos) {
+                return false;
+            }
+            halfOpen();
+            current = state;
+        }
+        if (current == State.HALF_OPEN && !takeProbe()) {
+            return false;
+        }
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /** The fetch was answered after {@code rttNanos}. */
+    public void onSuccess(long rttNanos) {
+        if (!enabled) {
+            return;
+        }
+        int concurrent = inFlight.getAndDecrement();
+        consecutiveFailures.set(0);
+        if (state == State.HALF_OPEN && probeSuccesses.incrementAndGet() >= halfOpenProbes) {
+            transition(State.HALF_OPEN, State.CLOSED);
+        }
+        updateLimit(rttNanos, concurrent);
+    }
+
+    /** The fetch timed out: db-fetcher is slow or not responding. */
+    public void onFailure() {
+        if (!enabled) {
+            return;
+        }
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * TIMEOUT_BACKOFF);
+            limit = (int) estimatedLimit;
+        }
+        if (state == State.HALF_OPEN) {
+            transition(State.HALF_OPEN, State.OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            transition(State.CLOSED, State.OPEN);
+        }
+    }
+
+    /**
+     * The fetch ended without telling anything about db-fetcher: it was discarded, or dropped because
+     * its request could not be sent. Neither the limit nor the breaker is touched.
+     */
+    public void onIgnore() {
+        if (enabled) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    private synchronized void updateLimit(long rttNanos, int concurrent) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos || ++samplesSinceBaseline >= BASELINE_RESET_SAMPLES) {
+            noLoadRttNanos = rttNanos;
+            samplesSinceBaseline = 0;
+        }
+
+        double log = Math.max(1, Math.log10(estimatedLimit));
+        double queued = estimatedLimit * (1 - (double) noLoadRttNanos / rttNanos);
+        double target;
+        if (queued < 3 * log) {
+            if (concurrent < estimatedLimit / 2) {
+                return; // not using the limit we have, so there is no evidence for a larger one
+            }
+            target = estimatedLimit + (queued <= log ? 6 * log : log);
+        } else if (queued > 6 * log) {
+            target = estimatedLimit - log;
+        } else {
+            return;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - smoothing) + target * smoothing));
+        limit = (int) estimatedLimit;
+    }
+
+    private boolean takeProbe() {
+        if (probePermits.getAndDecrement() > 0) {
+            return true;
+        }
+        // Probes that never reported back (discarded) must not wedge the circuit half-open
+        if (System.nanoTime() - stateSinceNanos >= openNanos) {
+            halfOpen();
+        }
+        return false;
+    }
+
+    private synchronized void halfOpen() {
+        if (state == State.CLOSED) {
+            return;
+        }
+        if (state == State.OPEN || System.nanoTime() - stateSinceNanos >= openNanos) {
+            probePermits.set(halfOpenProbes);
+            probeSuccesses.set(0);
+            stateSinceNanos = System.nanoTime();
+            if (state == State.OPEN) {
+                state = State.HALF_OPEN;
+                log.info("[FETCH-CIRCUIT] half-open, probing db-fetcher with {} fetches", halfOpenProbes);
+            }
+        }
+    }
+
+    private synchronized void transition(State from, State to) {
+        if (state != from) {
+            return;
+        }
+        state = to;
+        stateSinceNanos = System.nanoTime();
+        consecutiveFailures.set(0);
+        if (to == State.OPEN) {
+            log.warn("[FETCH-CIRCUIT] open: db-fetcher is not responding, refusing fetches for {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(openNanos));
+        } else {
+            log.info("[FETCH-CIRCUIT] closed, fetch limit={}", limit);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.cachegateway.service;
+
+import com.cachegateway.exception.FetchRejectedException;
+import com.cachegateway.exception.FetchTimeoutException;
+import com.cachegateway.metrics.CacheMetrics;
+import com.cachegateway.support.HashedTimingWheel;
+import commonlibs.dto.ProductDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded table of fetches waiting for a db-fetcher response, keyed by correlationId.
+ * <p>
+ * Every entry carries a deadline tracked by a shared {@link HashedTimingWheel}; when it fires,
+ * the entry is removed and its future fails with {@link FetchTimeoutException}, so a lost reply
+ * can never leak the future or hang the HTTP request. The number of outstanding entries is
+ * capped, and {@link #register} refuses new entries beyond it.
+ * <p>
+ * The {@link FetchLimiter} counts Kafka requests, not entries: every entry belongs to a {@link Permit}
+ * taken with {@link #acquire} for one request, single or batch, and the permit reports one outcome for
+ * the whole request (answered, timed out, or discarded). A lost batch reply is therefore one timeout
+ * for the circuit breaker, however many products it carried. A request that could not be sent is
+ * {@link #drop dropped}: its entries fail at once and the limiter is told nothing about db-fetcher.
+ */
+@Slf4j
+@Component
+public class PendingRequestTable {
+
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final HashedTimingWheel timer;
+    private final CacheMetrics metrics;
+    private final FetchLimiter limiter;
+    private final int maxOutstanding;
+
+    /**
+     * Limiter permit of one Kafka request, shared by the entries of its products. The first answer or
+     * timeout among them is reported; if every entry is discarded, the permit is given back unused.
+     */
+    public final class Permit {
+        private final AtomicInteger open;
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        private Permit(int entries) {
+            this.open = new AtomicInteger(entries);
+        }
+
+        private void answered(long rttNanos) {
+            open.decrementAndGet();
+            if (reported.compareAndSet(false, true)) {
+                limiter.onSuccess(rttNanos);
+            }
+        }
+
+        private void timedOut() {
+            open.decrementAndGet();
+            if (reported.compareAndSet(false, true)) {
+                limiter.onFailure();
+            }
+        }
+
+        private void discarded() {
+            if (open.decrementAndGet() == 0 && reported.compareAndSet(false, true)) {
+                limiter.onIgnore();
+            }
+        }
+
+        private void dropped() {
+            open.decrementAndGet();
+            if (reported.compareAndSet(false, true)) {
+                limiter.onIgnore();
+            }
+        }
+    }
+
+    private static final class Pending {
+        final String namespace;
+        final CompletableFuture<ProductDTO> future;
+        final Permit permit;
+        final long registeredAtNanos = System.nanoTime();
+        volatile HashedTimingWheel.Timeout timeout;
+
+        Pending(String namespace, CompletableFuture<ProductDTO> future, Permit permit) {
+            this.namespace = namespace;
+            this.future = future;
+            this.permit = permit;
+        }
+
+        void cancelTimeout() {
+            HashedTimingWheel.Timeout t = timeout;
+            if (t != null) t.cancel();
+        }
+    }
+
+    public PendingRequestTable(CacheMetrics metrics,
+                               FetchLimiter limiter,
+                               @Value("${gateway.pending.max-outstanding:10000}") int maxOutstanding,
+                               @Value("${gateway.pending.tick-ms:10}") long tickMs,
+                               @Value("${gateway.pending.wheel-size:512}") int wheelSize) {
+        this.metrics = metrics;
+        this.limiter = limiter;
+        this.maxOutstanding = maxOutstanding;
+        this.timer = new HashedTimingWheel("pending-request-timer", tickMs, TimeUnit.MILLISECONDS, wheelSize);
+        metrics.gauge("cache.fetch.pending", outstanding, AtomicInteger::get);
+    }
+
+    /**
+     * Takes a limiter permit for one Kafka request.
+     *
+     * @param entries number of entries that will be registered with it (products in the request)
+     * @return the permit, or null if the limiter refuses; the caller should shed the request
+     */
+    public Permit acquire(int entries) {
+        return limiter.tryAcquire() ? new Permit(entries) : null;
+    }
+
+    /**
+     * Registers a future to be completed by a response with the given correlationId.
+     * Every entry counted when the permit was acquired must be registered (or rejected) here once.
+     *
+     * @return false if the table is full; the caller should shed the request
+     */
+    public boolean register(String correlationId, String namespace,
+                            CompletableFuture<ProductDTO> future, Duration deadline, Permit permit) {
+        if (outstanding.incrementAndGet() > maxOutstanding) {
+            outstanding.decrementAndGet();
+            permit.discarded();
+            return false;
+        }
+        // Insert before scheduling so an early-firing deadline always finds the entry
+        Pending entry = new Pending(namespace, future, permit);
+        pending.put(correlationId, entry);
+        entry.timeout = timer.schedule(() -> expire(correlationId), deadline.toMillis(), TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * Completes and removes the entry for the correlationId, recording the fetch round-trip.
+     *
+     * @return false if the entry is unknown (already expired, or never registered here)
+     */
+    public boolean complete(String correlationId, ProductDTO product) {
+        Pending entry = remove(correlationId);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelTimeout();
+        long rttNanos = System.nanoTime() - entry.registeredAtNanos;
+        metrics.recordFetchRoundTrip(entry.namespace, rttNanos);
+        entry.permit.answered(rttNanos);
+        entry.future.complete(product);
+        return true;
+    }
+
+    /** Removes the entry without completing it, e.g. after its future failed or was cancelled. */
+    public void discard(String correlationId) {
+        Pending entry = remove(correlationId);
+        if (entry != null) {
+            entry.cancelTimeout();
+            entry.permit.discarded();
+        }
+    }
+
+    /**
+     * Fails the entry at once because its request never reached Kafka, instead of letting it wait for
+     * its deadline. The permit is released without counting as a timeout.
+     */
+    public void drop(String correlationId, Throwable cause) {
+        Pending entry = remove(correlationId);
+        if (entry == null) {
+            return;
+        }
+        entry.cancelTimeout();
+        entry.permit.dropped();
+        entry.future.completeExceptionally(new FetchRejectedException("Fetch request could not be sent", cause));
+    }
+
+    /** Pending-table key of one product within a batch request. */
+    public static String batchItemId(String batchId, Long productId) {
+        return batchId + "#" + productId;
+    }
+
+    /** Number of fetches currently waiting for a response. */
+    public int size() {
+        return outstanding.get();
+    }
+
+    private void expire(String correlationId) {
+        Pending entry = remove(correlationId);
+        if (entry == null) {
+            return;
+        }
+        metrics.recordFetchExpired(entry.namespace);
+        entry.permit.timedOut();
+        log.warn("[FETCH-TIMEOUT] correlationId={} namespace={}", correlationId, entry.namespace);
+        entry.future.completeExceptionally(
+                new FetchTimeoutException("No response for correlationId=" + correlationId));
+    }
+
+    private Pending remove(String correlationId) {
+        Pending entry = pending.remove(correlationId);
+        if (entry != null) {
+            outstanding.decrementAndGet();
+        }
+        return entry;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.close();
+    }
+}
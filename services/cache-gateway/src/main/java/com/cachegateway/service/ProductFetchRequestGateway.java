@@ -1,16 +1,31 @@
 package com.cachegateway.service;
 
+import com.cachegateway.metrics.CacheMetrics;
+import commonlibs.kafka.messages.ProductBatchFetchRequest;
 import commonlibs.kafka.messages.ProductFetchRequest;
+import commonlibs.kafka.reply.ReplyRouting;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Gateway for sending ProductFetchRequest messages to the Kafka topic "db.fetch.requests".
  * <p>
  * This class abstracts the Kafka interaction from the CacheService, providing a clean method
- * to send requests asynchronously and log success or failure.
+ * to send requests asynchronously and log success or failure. Each request names this
+ * instance's reply topic (see {@link ReplyTopics}) in its headers. The time until the broker
+ * acknowledges each request is recorded as {@code cache.fetch.send}.
+ * <p>
+ * Single-product requests are keyed by product ID, so all requests for a product land on the same
+ * partition and db-fetcher instance, which can then answer them with one lookup.
+ * <p>
+ * A request that cannot be sent is dropped from the {@link PendingRequestTable}: its callers fail at
+ * once instead of waiting for the fetch timeout, and the limiter does not count it as a timeout.
  */
 @Slf4j
 @Component
@@ -23,24 +38,80 @@ public class ProductFetchRequestGateway {
      */
     private final KafkaTemplate<String, ProductFetchRequest> kafkaTemplate;
 
+    /**
+     * KafkaTemplate used for sending batch requests to Kafka.
+     */
+    private final KafkaTemplate<String, ProductBatchFetchRequest> batchKafkaTemplate;
+
+    private final ReplyTopics replyTopics;
+
+    private final CacheMetrics metrics;
+
+    private final PendingRequestTable pendingRequests;
+
     /**
      * Sends a ProductFetchRequest message to the Kafka topic "db.fetch.requests".
      * <p>
      * The send operation is asynchronous. When complete, the method logs success or failure
-     * using the correlationId from the request.
+     * using the correlationId from the request; on failure the pending fetch is dropped.
      *
      * @param request the ProductFetchRequest containing the correlationId and productId
      */
     public void sendRequest(ProductFetchRequest request) {
-        kafkaTemplate.send("db.fetch.requests", request)
+        Long productId = request.getProductId();
+        ProducerRecord<String, ProductFetchRequest> record = new ProducerRecord<>("db.fetch.requests",
+                productId != null ? productId.toString() : null, request);
+        ReplyRouting.setReplyTopic(record.headers(), replyTopics.single());
+
+        long started = System.nanoTime();
+        send(kafkaTemplate, record)
                 .whenComplete((result, ex) -> {
+                    metrics.recordRequestSend("db.fetch.requests", System.nanoTime() - started, ex == null);
                     if (ex != null) {
                         log.error("Failed to send fetch request with correlationId={}",
                                 request.getCorrelationId(), ex);
+                        pendingRequests.drop(request.getCorrelationId(), ex);
                     } else {
-                        log.info("Sent fetch request with correlationId={}",
+                        log.debug("Sent fetch request with correlationId={}",
                                 request.getCorrelationId());
                     }
                 });
     }
+
+    /**
+     * Sends a ProductBatchFetchRequest message to the Kafka topic "db.fetch.batch.requests".
+     * On failure every product's pending fetch is dropped.
+     *
+     * @param request the ProductBatchFetchRequest containing the correlationId and productIds
+     */
+    public void sendBatchRequest(ProductBatchFetchRequest request) {
+        ProducerRecord<String, ProductBatchFetchRequest> record = new ProducerRecord<>("db.fetch.batch.requests", request);
+        ReplyRouting.setReplyTopic(record.headers(), replyTopics.batch());
+
+        long started = System.nanoTime();
+        send(batchKafkaTemplate, record)
+                .whenComplete((result, ex) -> {
+                    metrics.recordRequestSend("db.fetch.batch.requests", System.nanoTime() - started, ex == null);
+                    if (ex != null) {
+                        log.error("Failed to send batch fetch request with correlationId={}",
+                                request.getCorrelationId(), ex);
+                        for (Long productId : request.getProductIds()) {
+                            pendingRequests.drop(PendingRequestTable.batchItemId(request.getCorrelationId(), productId), ex);
+                        }
+                    } else {
+                        log.debug("Sent batch fetch request with correlationId={} for {} products",
+                                request.getCorrelationId(), request.getProductIds().size());
+                    }
+                });
+    }
+
+    /** Sends the record, turning a synchronous send error (e.g. serialization) into a failed future. */
+    private static <V> CompletableFuture<SendResult<String, V>> send(KafkaTemplate<String, V> template,
+                                                                      ProducerRecord<String, V> record) {
+        try {
+            return template.send(record);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
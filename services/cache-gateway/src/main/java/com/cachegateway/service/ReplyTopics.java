@@ -0,0 +1,54 @@
+package com.cachegateway.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-instance Kafka topics on which db-fetcher answers this gateway's fetch requests.
+ * <p>
+ * Every request carries its reply topic in a header (see {@link commonlibs.kafka.reply.ReplyRouting}),
+ * so a response always reaches the replica holding the pending future, however many replicas
+ * there are. Topic names and the consumer groups reading them are derived from
+ * {@code gateway.reply.instance-id}, which must be set: unique per running replica and stable across
+ * restarts (e.g. the StatefulSet pod name), so that a restart reuses its topics instead of creating new
+ * ones. The same id names the groups in which each replica reads broadcast topics on its own
+ * ({@link #replicaGroup}). A replica that is scaled away leaves its two topics behind; delete them with
+ * {@code kafka-topics --delete} once it is gone.
+ */
+@Component
+public class ReplyTopics {
+
+    private static final String SINGLE_PREFIX = "db.fetch.responses.";
+    private static final String BATCH_PREFIX = "db.fetch.batch.responses.";
+
+    private final String instanceId;
+
+    public ReplyTopics(@Value("${gateway.reply.instance-id:}") String instanceId) {
+        if (instanceId.isBlank()) {
+            throw new IllegalStateException("gateway.reply.instance-id is not set; give every gateway replica "
+                    + "a stable, unique id (e.g. the StatefulSet pod name) to name its reply topics");
+        }
+        // Kafka topic names allow only [a-zA-Z0-9._-]
+        this.instanceId = instanceId.trim().replaceAll("[^a-zA-Z0-9._-]", "-");
+    }
+
+    /** Reply topic for {@code ProductFetchResponse}. */
+    public String single() {
+        return SINGLE_PREFIX + instanceId;
+    }
+
+    /** Reply topic for {@code ProductBatchFetchResponse}. */
+    public String batch() {
+        return BATCH_PREFIX + instanceId;
+    }
+
+    /** Consumer group reading a reply topic; stable, so restarts do not leave new groups behind. */
+    public String groupOf(String topic) {
+        return "cache-gateway-" + topic;
+    }
+
+    /** Consumer group of this replica alone, for a listener that every replica runs on the same topic. */
+    public String replicaGroup(String listener) {
+        return "cache-gateway-" + listener + "." + instanceId;
+    }
+}
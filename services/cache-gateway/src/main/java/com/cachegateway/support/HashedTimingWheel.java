@@ -0,0 +1,138 @@
+package com.cachegateway.support;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel for large numbers of short, mostly-cancelled timeouts.
+ * <p>
+ * Scheduling and cancelling are O(1): a new timeout is queued lock-free and placed into
+ * its bucket by the single worker thread; cancelling just flips a flag. Every tick the worker
+ * visits one bucket and fires the timeouts whose rounds have elapsed. Precision is one tick,
+ * which is fine for request deadlines measured in hundreds of milliseconds.
+ */
+@Slf4j
+public class HashedTimingWheel implements AutoCloseable {
+
+    /** Handle returned by {@link #schedule}. */
+    public interface Timeout {
+        /** @return true if the timeout was cancelled before it fired */
+        boolean cancel();
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Task>[] wheel;
+    private final Queue<Task> incoming = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        if (size == 0) size = 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = size - 1;
+        this.wheel = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /** Runs the task once after the delay unless cancelled first. */
+    public Timeout schedule(Runnable action, long delay, TimeUnit unit) {
+        Task task = new Task(action, System.nanoTime() + unit.toNanos(delay));
+        incoming.add(task);
+        return task;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            long sleep;
+            while ((sleep = deadline - System.nanoTime()) > 0 && running) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            transferIncoming(tick);
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferIncoming(long currentTick) {
+        Task task;
+        while ((task = incoming.poll()) != null) {
+            if (task.state.get() != Task.PENDING) continue;
+            long targetTick = Math.max((task.deadlineNanos - startNanos) / tickNanos, currentTick);
+            task.remainingRounds = (targetTick - currentTick) / wheel.length;
+            wheel[(int) (targetTick & mask)].add(task);
+        }
+    }
+
+    private void expire(Queue<Task> bucket) {
+        Iterator<Task> it = bucket.iterator();
+        while (it.hasNext()) {
+            Task task = it.next();
+            if (task.state.get() != Task.PENDING) {
+                it.remove();
+            } else if (task.remainingRounds <= 0) {
+                it.remove();
+                task.fire();
+            } else {
+                task.remainingRounds--;
+            }
+        }
+    }
+
+    private static final class Task implements Timeout {
+        static final int PENDING = 0;
+        static final int CANCELLED = 1;
+        static final int FIRED = 2;
+
+        final Runnable action;
+        final long deadlineNanos;
+        final AtomicInteger state = new AtomicInteger(PENDING);
+        long remainingRounds; // only touched by the worker thread
+
+        Task(Runnable action, long deadlineNanos) {
+            this.action = action;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+
+        void fire() {
+            if (!state.compareAndSet(PENDING, FIRED)) return;
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                log.error("Timing wheel task failed", e);
+            }
+        }
+    }
+}
@@ -1,25 +1,83 @@
 package com.dbfetcher.config;
 
 import commonlibs.kafka.config.KafkaCommonConfig;
+import commonlibs.kafka.messages.ProductBatchFetchRequest;
+import commonlibs.kafka.messages.ProductBatchFetchResponse;
+import commonlibs.kafka.messages.ProductChangeEvent;
 import commonlibs.kafka.messages.ProductFetchRequest;
 import commonlibs.kafka.messages.ProductFetchResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
 
 @Configuration
 @EnableKafka
 public class KafkaConfig extends KafkaCommonConfig {
 
+    /** Maximum number of fetch requests handled per batch (one SQL query per batch) */
+    @Value("${fetcher.batch-listener.max-records:500}")
+    private int batchMaxRecords;
+
+    /** Maximum time the broker waits to fill a batch */
+    @Value("${fetcher.batch-listener.max-wait-ms:20}")
+    private int batchMaxWaitMs;
+
+    /** Bytes the broker tries to accumulate before returning a batch */
+    @Value("${fetcher.batch-listener.min-bytes:4096}")
+    private int batchMinBytes;
+
     @Bean
     public KafkaTemplate<String, ProductFetchResponse> productResponseKafkaTemplate() {
         return jsonKafkaTemplate();
     }
 
+    @Bean
+    public KafkaTemplate<String, ProductBatchFetchResponse> batchResponseKafkaTemplate() {
+        return jsonKafkaTemplate();
+    }
+
+    @Bean
+    public KafkaTemplate<String, ProductChangeEvent> changeKafkaTemplate() {
+        return jsonKafkaTemplate();
+    }
+
+    /**
+     * Listener factory for "db.fetch.requests" in the default, record-by-record mode; reads JSON and binary requests.
+     */
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, ProductFetchRequest> requestListenerFactory() {
         return jsonListenerFactory(ProductFetchRequest.class, "db-fetcher-group");
     }
+
+    /**
+     * Batch listener factory for "db.fetch.requests", used when fetcher.batch-listener.enabled=true.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductFetchRequest> batchFetchListenerFactory() {
+        return jsonBatchListenerFactory(ProductFetchRequest.class, "db-fetcher-group",
+                batchMaxRecords, batchMaxWaitMs, batchMinBytes);
+    }
+
+    /**
+     * Listener factory for "db.fetch.requests" when fetcher.parallel.enabled=true: records are acknowledged
+     * by the worker that answered them, possibly out of order, and the container only commits an offset
+     * once every earlier record of the partition has been acknowledged.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductFetchRequest> parallelFetchListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ProductFetchRequest> factory =
+                jsonListenerFactory(ProductFetchRequest.class, "db-fetcher-group");
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductBatchFetchRequest> batchRequestListenerFactory() {
+        return jsonListenerFactory(ProductBatchFetchRequest.class, "db-fetcher-group");
+    }
 }
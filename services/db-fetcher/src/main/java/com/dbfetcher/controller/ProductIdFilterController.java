@@ -0,0 +1,27 @@
+package com.dbfetcher.controller;
+
+import com.dbfetcher.service.ProductIdFilterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves the Bloom filter of existing product IDs to the cache gateways.
+ */
+@RestController
+@RequestMapping("/products")
+@RequiredArgsConstructor
+public class ProductIdFilterController {
+
+    private final ProductIdFilterService filterService;
+
+    /**
+     * @return serialized {@link commonlibs.cache.bloom.IdBloomFilter}
+     */
+    @GetMapping(value = "/id-filter", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public byte[] idFilter() {
+        return filterService.currentFilter();
+    }
+}
@@ -0,0 +1,152 @@
+package com.dbfetcher.events;
+
+import com.dbfetcher.listener.FetchDeduplicator;
+import com.dbfetcher.repository.ProductChangeOutbox;
+import com.dbfetcher.repository.ProductJdbcReader;
+import commonlibs.dto.ProductDTO;
+import commonlibs.kafka.messages.ProductChangeEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Turns committed writes to {@code products} into {@link ProductChangeEvent}s on "db.product.changes".
+ * <p>
+ * Products are written by other applications, not through this service, so changes are read from the
+ * {@link ProductChangeOutbox} that a trigger on the table fills. Every {@code fetcher.change-feed.poll-ms}
+ * one db-fetcher instance (whichever gets the outbox lock) claims up to {@code batch-size} changes, reads
+ * the current rows and publishes an UPSERT with the product, or a DELETE if it is gone. The claimed
+ * changes are removed only once the broker has acknowledged every event, so a failure leaves them for the
+ * next poll; gateways may see a change twice, but never miss one. Several changes of one product within a
+ * batch are published once.
+ * <p>
+ * Published products are also dropped from this instance's {@link FetchDeduplicator} window. On startup
+ * the outbox table and trigger are created unless {@code fetcher.change-feed.install-trigger=false}.
+ */
+@Slf4j
+@Component
+public class ProductChangeFeed {
+
+    private final ProductChangeOutbox outbox;
+    private final ProductJdbcReader reader;
+    private final ProductChangePublisher publisher;
+    private final FetchDeduplicator deduplicator;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final boolean installTrigger;
+    private final long pollMs;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "product-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean installed;
+
+    public ProductChangeFeed(ProductChangeOutbox outbox,
+                             ProductJdbcReader reader,
+                             ProductChangePublisher publisher,
+                             FetchDeduplicator deduplicator,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${fetcher.change-feed.enabled:true}") boolean enabled,
+                             @Value("${fetcher.change-feed.install-trigger:true}") boolean installTrigger,
+                             @Value("${fetcher.change-feed.poll-ms:200}") long pollMs,
+                             @Value("${fetcher.change-feed.batch-size:500}") int batchSize,
+                             @Value("${fetcher.change-feed.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.outbox = outbox;
+        this.reader = reader;
+        this.publisher = publisher;
+        this.deduplicator = deduplicator;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.installTrigger = installTrigger;
+        this.pollMs = pollMs;
+        this.batchSize = Math.max(1, batchSize);
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.installed = !installTrigger;
+    }
+
+    /** Starts polling once the application, including the JPA schema update, is up. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::poll, 0, pollMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void poll() {
+        try {
+            if (!installed) {
+                transaction.executeWithoutResult(status -> outbox.install());
+                installed = true;
+                log.info("Installed the product_changes outbox and its trigger on products");
+            }
+            // Drain a backlog without waiting for the next tick
+            while (Boolean.TRUE.equals(transaction.execute(status -> publishBatch()))) {
+                // next batch
+            }
+        } catch (RuntimeException e) {
+            log.warn("Product change feed failed, retrying in {} ms", pollMs, e);
+        }
+    }
+
+    /** @return true if the batch was full, so more changes may be waiting */
+    private boolean publishBatch() {
+        if (!outbox.tryLock()) {
+            return false; // another instance is publishing
+        }
+        List<Long> claimed = outbox.claim(batchSize);
+        if (claimed.isEmpty()) {
+            return false;
+        }
+        Set<Long> ids = new LinkedHashSet<>(claimed);
+        Map<Long, ProductDTO> current = reader.findAllById(ids);
+        CompletableFuture<?>[] sends = ids.stream()
+                .map(id -> {
+                    deduplicator.forget(id);
+                    ProductDTO product = current.get(id);
+                    return publisher.publish(product != null
+                            ? new ProductChangeEvent(ProductDTO.ENTITY, id, ProductChangeEvent.Type.UPSERT, product)
+                            : new ProductChangeEvent(ProductDTO.ENTITY, id, ProductChangeEvent.Type.DELETE, null));
+                })
+                .toArray(CompletableFuture[]::new);
+        awaitAcknowledged(sends);
+        log.debug("Published {} product changes ({} outbox rows)", ids.size(), claimed.size());
+        return claimed.size() == batchSize;
+    }
+
+    /** Waits for the broker; throwing rolls the claim back, so the changes are published again. */
+    private void awaitAcknowledged(CompletableFuture<?>[] sends) {
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing product changes", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Product changes were not acknowledged", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,35 @@
+package com.dbfetcher.events;
+
+import commonlibs.kafka.messages.ProductChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes {@link ProductChangeEvent}s to "db.product.changes", keyed by product ID.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductChangePublisher {
+
+    static final String TOPIC = "db.product.changes";
+
+    private final KafkaTemplate<String, ProductChangeEvent> changeKafkaTemplate;
+
+    /** Sends the event; the future completes once the broker has acknowledged it. */
+    public CompletableFuture<SendResult<String, ProductChangeEvent>> publish(ProductChangeEvent event) {
+        return changeKafkaTemplate.send(TOPIC, String.valueOf(event.getProductId()), event)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to publish {} change for productId={}", event.getType(), event.getProductId(), ex);
+                    } else {
+                        log.debug("Published {} change for productId={}", event.getType(), event.getProductId());
+                    }
+                });
+    }
+}
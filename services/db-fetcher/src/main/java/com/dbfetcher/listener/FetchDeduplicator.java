@@ -0,0 +1,129 @@
+package com.dbfetcher.listener;
+
+import commonlibs.dto.ProductDTO;
+import commonlibs.kafka.messages.ProductFetchRequest;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares one database lookup between fetch requests for the same product.
+ * <p>
+ * Requests are keyed by product ID, so all requests for an ID reach the same db-fetcher. While a
+ * lookup for an ID is queued or running, further requests for it are attached as waiters instead of
+ * querying again, and the single result is sent to every waiting correlationId. After it completes the
+ * result is kept for {@code fetcher.dedupe.window-ms}, so a burst of misses from several gateways (or a
+ * gateway retrying) is answered without another query. Changes published by
+ * {@link com.dbfetcher.events.ProductChangeFeed} {@link #forget} the ID, so results read before them are not reused.
+ */
+@Component
+public class FetchDeduplicator {
+
+    private static final int RECENT_SWEEP_THRESHOLD = 10_000;
+
+    /** A request waiting for the lookup of its product, acknowledged once it has been answered. */
+    public record Waiter(ConsumerRecord<String, ProductFetchRequest> record, Acknowledgment ack) {
+    }
+
+    /** A result kept for the window; {@code product} is null if the product does not exist. */
+    public record Recent(ProductDTO product, long expiresAtNanos) {
+    }
+
+    /** One lookup in progress and the requests waiting for it. */
+    public static final class InFlight {
+        private final List<Waiter> waiters = new ArrayList<>(1);
+    }
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<Long, Recent> recent = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+
+    public FetchDeduplicator(@Value("${fetcher.dedupe.enabled:true}") boolean enabled,
+                             @Value("${fetcher.dedupe.window-ms:20}") long windowMs) {
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    /**
+     * Attaches the request to the lookup in progress for its product, or starts a new one.
+     *
+     * @return the new lookup, which the caller must run and then {@link #complete}; null if the request
+     * joined a lookup already in progress and will be answered by it
+     */
+    public InFlight join(Long productId, Waiter waiter) {
+        if (!enabled || productId == null) {
+            InFlight own = new InFlight();
+            own.waiters.add(waiter);
+            return own;
+        }
+        InFlight[] created = new InFlight[1];
+        inFlight.compute(productId, (id, current) -> {
+            if (current == null) {
+                current = created[0] = new InFlight();
+            }
+            current.waiters.add(waiter);
+            return current;
+        });
+        return created[0];
+    }
+
+    /**
+     * Ends the lookup; from now on new requests for the product start another one.
+     *
+     * @return every request that waited for it, in arrival order
+     */
+    public List<Waiter> complete(Long productId, InFlight lookup) {
+        if (productId != null) {
+            inFlight.remove(productId, lookup);
+        }
+        return lookup.waiters;
+    }
+
+    /** Result of a lookup of the product that completed within the window, or null. */
+    public Recent recent(Long productId) {
+        if (!enabled || productId == null || windowNanos <= 0) {
+            return null;
+        }
+        Recent entry = recent.get(productId);
+        if (entry != null && System.nanoTime() - entry.expiresAtNanos() > 0) {
+            recent.remove(productId, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /** Taken before a lookup and passed to {@link #remember}, so results read before a write are not kept. */
+    public long stamp() {
+        return writes.get();
+    }
+
+    /** Keeps the result of a lookup for the window, unless a product was written since {@code stamp}. */
+    public void remember(Long productId, ProductDTO product, long stamp) {
+        if (!enabled || productId == null || windowNanos <= 0 || writes.get() != stamp) {
+            return;
+        }
+        long now = System.nanoTime();
+        recent.put(productId, new Recent(product, now + windowNanos));
+        if (recent.size() > RECENT_SWEEP_THRESHOLD) {
+            recent.values().removeIf(entry -> now - entry.expiresAtNanos() > 0);
+        }
+    }
+
+    /** Drops the remembered result of the product, e.g. because it was just written. */
+    public void forget(Long productId) {
+        writes.incrementAndGet();
+        if (productId != null) {
+            recent.remove(productId);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.dbfetcher.listener;
+
+import com.dbfetcher.metrics.FetcherMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs fetch requests in parallel while keeping them in order per product ID.
+ * <p>
+ * Work is spread over {@code fetcher.parallel.threads} lanes, each a single thread; the lane is chosen
+ * from the product ID, so requests for one ID run one after another in arrival order while different
+ * IDs run side by side. The thread count defaults to, and is capped at, the Hikari pool size
+ * ({@code spring.datasource.hikari.maximum-pool-size}): every lane holds at most one connection, and
+ * more threads would only wait for the pool.
+ * <p>
+ * At most {@code fetcher.parallel.max-in-flight} requests are queued or running; {@link #submit} blocks
+ * the consumer thread beyond that, which keeps it from polling ahead of the database.
+ */
+@Slf4j
+@Component
+public class KeyOrderedExecutor {
+
+    private final ExecutorService[] lanes;
+    private final Semaphore permits;
+    private final int maxInFlight;
+
+    public KeyOrderedExecutor(FetcherMetrics metrics,
+                              @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+                              @Value("${fetcher.parallel.threads:0}") int threads,
+                              @Value("${fetcher.parallel.max-in-flight:0}") int maxInFlight) {
+        int poolSize = Math.max(1, connectionPoolSize);
+        int laneCount = threads > 0 ? Math.min(threads, poolSize) : poolSize;
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String name = "fetch-lane-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : laneCount * 8;
+        this.permits = new Semaphore(this.maxInFlight);
+        metrics.gauge("fetcher.parallel.in_flight", this, e -> e.maxInFlight - e.permits.availablePermits());
+    }
+
+    /**
+     * Queues the task behind every earlier task with the same key, waiting while the executor is full.
+     * A task that throws is logged.
+     *
+     * @param key ordering key; null keys share one lane
+     */
+    public void submit(Long key, Runnable task) throws InterruptedException {
+        permits.acquire();
+        try {
+            lanes[laneOf(key)].execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Fetch task for key={} failed", key, e);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /** Number of lanes, i.e. how many requests run at once. */
+    public int parallelism() {
+        return lanes.length;
+    }
+
+    private int laneOf(Long key) {
+        if (key == null) {
+            return 0;
+        }
+        int hash = Long.hashCode(key) * 0x9E3779B9;
+        return (hash >>> 1) % lanes.length;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            if (!lane.awaitTermination(5, TimeUnit.SECONDS)) {
+                lane.shutdownNow();
+            }
+        }
+    }
+}
@@ -1,32 +1,186 @@
 package com.dbfetcher.listener;
 
-import com.dbfetcher.mapper.ProductMapper;
-import com.dbfetcher.models.ProductEntity;
-import com.dbfetcher.repository.ProductRepository;
+import com.dbfetcher.metrics.FetcherMetrics;
+import com.dbfetcher.service.ProductQueryService;
+import commonlibs.dto.ProductDTO;
+import commonlibs.kafka.messages.ProductBatchFetchRequest;
+import commonlibs.kafka.messages.ProductBatchFetchResponse;
 import commonlibs.kafka.messages.ProductFetchRequest;
 import commonlibs.kafka.messages.ProductFetchResponse;
+import commonlibs.kafka.reply.ReplyRouting;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Answers product fetch requests from the cache gateways.
+ * <p>
+ * "db.fetch.requests" is consumed in one of three ways:
+ * <ul>
+ *     <li>record by record on the consumer thread (default);</li>
+ *     <li>{@code fetcher.batch-listener.enabled=true}: one poll at a time, every poll collapsed into a
+ *     single set-based query over its distinct product IDs;</li>
+ *     <li>{@code fetcher.parallel.enabled=true}: records are handed to a {@link KeyOrderedExecutor}, so
+ *     several queries run at once but requests for the same product ID stay in order. Offsets are
+ *     committed only up to the first record that is still being processed.</li>
+ * </ul>
+ * Requests are keyed by product ID, so every request for an ID reaches the same db-fetcher, and
+ * {@link FetchDeduplicator} lets them share lookups: in parallel mode requests for an ID whose lookup is
+ * still queued or running join it and all get its answer, and in single and parallel mode a lookup
+ * that completed within {@code fetcher.dedupe.window-ms} is reused.
+ * <p>
+ * Every response goes to the reply topic named in the request headers ({@link ReplyRouting}), so it
+ * reaches the gateway replica that asked; requests without one are answered on the shared topics.
+ * <p>
+ * Query time is recorded as {@code fetcher.query} and answers as {@code fetcher.requests}.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ProductFetchListener {
 
-    private final ProductRepository repository;
+    private final ProductQueryService queryService;
     private final KafkaTemplate<String, ProductFetchResponse> kafkaTemplate;
+    private final KafkaTemplate<String, ProductBatchFetchResponse> batchKafkaTemplate;
+    private final FetcherMetrics metrics;
+    private final KeyOrderedExecutor keyOrderedExecutor;
+    private final FetchDeduplicator deduplicator;
+
+    @KafkaListener(
+            id = "productFetchListener",
+            topics = "db.fetch.requests",
+            groupId = "db-fetcher-group",
+            containerFactory = "requestListenerFactory",
+            autoStartup = "#{!${fetcher.batch-listener.enabled:false} and !${fetcher.parallel.enabled:false}}"
+    )
+    public void handleFetchRequest(ConsumerRecord<String, ProductFetchRequest> record) {
+        ProductFetchRequest request = record.value();
+        log.debug("Received fetch request for productId={}", request.getProductId());
+        reply(record, lookUp(request.getProductId()), "single");
+    }
+
+    @KafkaListener(
+            id = "productFetchParallelListener",
+            topics = "db.fetch.requests",
+            groupId = "db-fetcher-group",
+            containerFactory = "parallelFetchListenerFactory",
+            autoStartup = "#{!${fetcher.batch-listener.enabled:false} and ${fetcher.parallel.enabled:false}}"
+    )
+    public void handleFetchRequestInParallel(ConsumerRecord<String, ProductFetchRequest> record,
+                                             Acknowledgment ack) throws InterruptedException {
+        Long productId = record.value().getProductId();
+        FetchDeduplicator.InFlight lookup = deduplicator.join(productId, new FetchDeduplicator.Waiter(record, ack));
+        if (lookup == null) {
+            metrics.recordDeduplicated("joined");
+            return;
+        }
+        try {
+            keyOrderedExecutor.submit(productId, () -> answerWaiting(productId, lookup));
+        } catch (InterruptedException e) {
+            // Shutting down: the unacknowledged requests are redelivered after the restart
+            deduplicator.complete(productId, lookup);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs one lookup and answers every request that joined it. Requests are acknowledged even if the
+     * lookup fails: an offset that is never acknowledged would hold back the commits of its partition.
+     */
+    private void answerWaiting(Long productId, FetchDeduplicator.InFlight lookup) {
+        ProductDTO product = null;
+        boolean succeeded = false;
+        try {
+            product = lookUp(productId);
+            succeeded = true;
+        } finally {
+            for (FetchDeduplicator.Waiter waiter : deduplicator.complete(productId, lookup)) {
+                if (succeeded) {
+                    reply(waiter.record(), product, "parallel");
+                }
+                waiter.ack().acknowledge();
+            }
+        }
+    }
+
+    /** Queries the product, unless a lookup of it completed within the dedupe window. */
+    private ProductDTO lookUp(Long productId) {
+        FetchDeduplicator.Recent recent = deduplicator.recent(productId);
+        if (recent != null) {
+            metrics.recordDeduplicated("recent");
+            return recent.product();
+        }
+        long stamp = deduplicator.stamp();
+        ProductDTO product = metrics.timeQuery("findById", () -> queryService.findById(productId));
+        deduplicator.remember(productId, product, stamp);
+        return product;
+    }
+
+    private void reply(ConsumerRecord<String, ProductFetchRequest> record, ProductDTO product, String listener) {
+        ProductFetchResponse response = new ProductFetchResponse(record.value().getCorrelationId(), product);
+        kafkaTemplate.send(ReplyRouting.reply(record.headers(), "db.fetch.responses", response.getCorrelationId(), response));
+        metrics.recordAnswered(listener, product != null ? 1 : 0, product != null ? 0 : 1);
+        log.debug("Sent fetch response for correlationId={}", response.getCorrelationId());
+    }
+
+    @KafkaListener(
+            id = "productFetchBatchListener",
+            topics = "db.fetch.requests",
+            groupId = "db-fetcher-group",
+            containerFactory = "batchFetchListenerFactory",
+            autoStartup = "${fetcher.batch-listener.enabled:false}"
+    )
+    public void handleFetchRequests(List<ConsumerRecord<String, ProductFetchRequest>> requests) {
+        Set<Long> ids = requests.stream()
+                .map(record -> record.value().getProductId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        // One query for the whole poll, then one response per request
+        Map<Long, ProductDTO> found = metrics.timeQuery("findAllById", () -> queryService.findAllById(ids));
+        int answeredFound = 0;
+        for (ConsumerRecord<String, ProductFetchRequest> record : requests) {
+            ProductFetchRequest request = record.value();
+            ProductFetchResponse response = new ProductFetchResponse(
+                    request.getCorrelationId(), found.get(request.getProductId()));
+            kafkaTemplate.send(ReplyRouting.reply(record.headers(), "db.fetch.responses",
+                    response.getCorrelationId(), response));
+            if (response.getProduct() != null) answeredFound++;
+        }
+        metrics.recordAnswered("poll", answeredFound, requests.size() - answeredFound);
+        log.debug("Answered {} fetch requests for {} distinct products ({} found)",
+                requests.size(), ids.size(), found.size());
+    }
 
-    @KafkaListener(topics = "db.fetch.requests", groupId = "db-fetcher-group")
-    public void handleFetchRequest(ProductFetchRequest request) {
-        log.info("Received fetch request for productId={}", request.getProductId());
+    @KafkaListener(
+            topics = "db.fetch.batch.requests",
+            groupId = "db-fetcher-group",
+            containerFactory = "batchRequestListenerFactory"
+    )
+    public void handleBatchFetchRequest(ConsumerRecord<String, ProductBatchFetchRequest> record) {
+        ProductBatchFetchRequest request = record.value();
+        List<Long> ids = request.getProductIds();
+        log.debug("Received batch fetch request for {} products", ids.size());
 
-        ProductEntity product = repository.findById(request.getProductId()).orElse(null);
-        ProductFetchResponse response = new ProductFetchResponse(request.getCorrelationId(), ProductMapper.toDTO(product));
+        // One query for the whole batch, then re-align the results with the requested order
+        Map<Long, ProductDTO> found = metrics.timeQuery("findAllById", () -> queryService.findAllById(ids));
+        List<ProductDTO> products = ids.stream().map(found::get).toList();
 
-        kafkaTemplate.send("db.fetch.responses", response.getCorrelationId(), response);
-        log.info("Sent fetch response for correlationId={}", request.getCorrelationId());
+        ProductBatchFetchResponse response = new ProductBatchFetchResponse(request.getCorrelationId(), ids, products);
+        batchKafkaTemplate.send(ReplyRouting.reply(record.headers(), "db.fetch.batch.responses",
+                response.getCorrelationId(), response));
+        metrics.recordAnswered("batch", found.size(), ids.size() - found.size());
+        log.debug("Sent batch fetch response for correlationId={} ({} of {} found)",
+                request.getCorrelationId(), found.size(), ids.size());
     }
 }
@@ -0,0 +1,60 @@
+package com.dbfetcher.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Central place for db-fetcher meters.
+ * <p>
+ * Query timers are tagged with the query kind; percentiles and histogram buckets are switched on
+ * through {@code management.metrics.distribution.*} in the service config.
+ */
+@Component
+public class FetcherMetrics {
+
+    private final MeterRegistry registry;
+
+    public FetcherMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** Runs the database lookup and records its duration as {@code fetcher.query}. */
+    public <T> T timeQuery(String query, Supplier<T> lookup) {
+        return Timer.builder("fetcher.query")
+                .tag("query", query)
+                .register(registry)
+                .record(lookup);
+    }
+
+    /** Fetch requests answered, split by whether the product existed. */
+    public void recordAnswered(String listener, int found, int missing) {
+        counter("fetcher.requests", listener, "found").increment(found);
+        counter("fetcher.requests", listener, "not_found").increment(missing);
+    }
+
+    /** A fetch request answered without its own query: it joined one in progress, or one that just completed. */
+    public void recordDeduplicated(String how) {
+        Counter.builder("fetcher.dedupe")
+                .tag("result", how)
+                .register(registry)
+                .increment();
+    }
+
+    /** Registers a gauge that samples {@code value} on every scrape. */
+    public <T> void gauge(String name, T target, ToDoubleFunction<T> value) {
+        Gauge.builder(name, target, value).register(registry);
+    }
+
+    private Counter counter(String name, String listener, String result) {
+        return Counter.builder(name)
+                .tag("listener", listener)
+                .tag("result", result)
+                .register(registry);
+    }
+}
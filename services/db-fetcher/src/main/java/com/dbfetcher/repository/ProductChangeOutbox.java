@@ -0,0 +1,82 @@
+package com.dbfetcher.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * The {@code product_changes} outbox: one row per written product, filled by a trigger on {@code products}.
+ * <p>
+ * The trigger records the ID of every inserted, updated or deleted row in the writing transaction, so
+ * the outbox sees every write, whichever client made it, and only once it is committed. Rows hold no
+ * state; readers look up the current product. {@code TRUNCATE} is not recorded.
+ * <p>
+ * All statements are PostgreSQL (14 or later for {@code CREATE OR REPLACE TRIGGER}) and must run inside
+ * a transaction, since the advisory locks are transaction-scoped.
+ */
+@Repository
+public class ProductChangeOutbox {
+
+    /** Advisory lock key held by whoever installs or drains the outbox. */
+    private static final long LOCK_KEY = 0x70726f6475637473L; // "products"
+
+    private static final List<String> INSTALL = List.of(
+            """
+            create table if not exists product_changes (
+                seq bigserial primary key,
+                product_id bigint not null,
+                changed_at timestamptz not null default now()
+            )""",
+            """
+            create or replace function record_product_change() returns trigger language plpgsql as $$
+            begin
+                if tg_op in ('UPDATE', 'DELETE') then
+                    insert into product_changes (product_id) values (old.id);
+                end if;
+                if tg_op = 'INSERT' or (tg_op = 'UPDATE' and new.id <> old.id) then
+                    insert into product_changes (product_id) values (new.id);
+                end if;
+                return null;
+            end $$""",
+            """
+            create or replace trigger products_record_change
+                after insert or update or delete on products
+                for each row execute function record_product_change()""");
+
+    private static final String CLAIM = """
+            delete from product_changes
+            where seq in (select seq from product_changes order by seq limit ?)
+            returning product_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductChangeOutbox(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Creates the outbox table and the trigger on {@code products}, or brings them up to date. */
+    public void install() {
+        jdbcTemplate.query("select pg_advisory_xact_lock(?)", rs -> { }, LOCK_KEY);
+        INSTALL.forEach(jdbcTemplate::execute);
+    }
+
+    /**
+     * Makes the calling transaction the only reader of the outbox until it ends.
+     *
+     * @return false if another transaction is reading it
+     */
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY));
+    }
+
+    /**
+     * Removes the oldest changes; they stay in the outbox if the transaction rolls back.
+     *
+     * @return IDs of the changed products, oldest change first, possibly repeated
+     */
+    public List<Long> claim(int limit) {
+        return jdbcTemplate.queryForList(CLAIM, Long.class, limit);
+    }
+}
@@ -0,0 +1,72 @@
+package com.dbfetcher.repository;
+
+import commonlibs.dto.ProductDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only product lookups over plain JDBC, mapping rows straight into {@link ProductDTO}.
+ * <p>
+ * Unlike {@link ProductRepository} there is no persistence context: no managed entity, no snapshot
+ * for dirty checking and no second copy into a DTO. The SQL text never changes (many IDs are bound
+ * as one {@code bigint[]} for {@code = ANY(?)} instead of an {@code IN} list per size), so the
+ * driver keeps one prepared statement per query and connection and switches it to a server-side
+ * prepared statement after {@code prepareThreshold} executions.
+ */
+@Repository
+public class ProductJdbcReader {
+
+    private static final String SELECT = "select id, name, description, price from products";
+    private static final String BY_ID = SELECT + " where id = ?";
+    private static final String BY_IDS = SELECT + " where id = any(?)";
+
+    private static final RowMapper<ProductDTO> PRODUCT = (rs, rowNum) -> toDTO(rs);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductJdbcReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Returns the product, or null if it does not exist. */
+    public ProductDTO findById(long id) {
+        List<ProductDTO> rows = jdbcTemplate.query(BY_ID, PRODUCT, id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /** Found products by ID; IDs that do not exist are absent from the map. */
+    public Map<Long, ProductDTO> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, ProductDTO> found = new HashMap<>((int) (ids.size() / 0.75f) + 1);
+        jdbcTemplate.query(BY_IDS,
+                ps -> {
+                    Array array = ps.getConnection().createArrayOf("bigint", ids.toArray());
+                    ps.setArray(1, array);
+                },
+                rs -> {
+                    ProductDTO product = toDTO(rs);
+                    found.put(product.getId(), product);
+                });
+        return found;
+    }
+
+    private static ProductDTO toDTO(ResultSet rs) throws SQLException {
+        ProductDTO product = new ProductDTO();
+        product.setId(rs.getLong(1));
+        product.setName(rs.getString(2));
+        product.setDescription(rs.getString(3));
+        product.setPrice(rs.getBigDecimal(4));
+        return product;
+    }
+}
@@ -1,7 +1,17 @@
 package com.dbfetcher.repository;
 
 import com.dbfetcher.models.ProductEntity;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
+
+    /** All product IDs, streamed in chunks; must be consumed inside a transaction. */
+    @Query("select p.id from ProductEntity p")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<Long> streamAllIds();
 }
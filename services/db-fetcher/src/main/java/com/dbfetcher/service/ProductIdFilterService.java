@@ -0,0 +1,70 @@
+package com.dbfetcher.service;
+
+import com.dbfetcher.repository.ProductRepository;
+import commonlibs.cache.bloom.IdBloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Builds the Bloom filter of existing product IDs that gateways use to reject unknown IDs.
+ * <p>
+ * The serialized filter is cached and rebuilt at most every {@code fetcher.id-filter.rebuild-ms},
+ * so any number of gateways polling it cost one ID scan per interval.
+ */
+@Slf4j
+@Service
+public class ProductIdFilterService {
+
+    private final ProductRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double falsePositiveProbability;
+    private final long rebuildNanos;
+
+    private volatile byte[] snapshot;
+    private volatile long builtAtNanos;
+
+    public ProductIdFilterService(ProductRepository repository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${fetcher.id-filter.false-positive-probability:0.01}") double falsePositiveProbability,
+                                  @Value("${fetcher.id-filter.rebuild-ms:60000}") long rebuildMs) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.rebuildNanos = TimeUnit.MILLISECONDS.toNanos(rebuildMs);
+    }
+
+    /** Serialized {@link IdBloomFilter}, rebuilt if the cached one is too old. */
+    public byte[] currentFilter() {
+        byte[] current = snapshot;
+        if (current != null && System.nanoTime() - builtAtNanos < rebuildNanos) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot != current) {
+                return snapshot; // rebuilt by another caller meanwhile
+            }
+            long started = System.nanoTime();
+            IdBloomFilter filter = readOnlyTransaction.execute(status -> build());
+            snapshot = filter.toBytes();
+            builtAtNanos = System.nanoTime();
+            log.info("Rebuilt product ID filter ({} bytes, max id {}) in {} ms", snapshot.length, filter.maxId(),
+                    TimeUnit.NANOSECONDS.toMillis(builtAtNanos - started));
+            return snapshot;
+        }
+    }
+
+    private IdBloomFilter build() {
+        IdBloomFilter filter = IdBloomFilter.create(repository.count(), falsePositiveProbability);
+        try (Stream<Long> ids = repository.streamAllIds()) {
+            ids.forEach(filter::put);
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,62 @@
+package com.dbfetcher.service;
+
+import com.dbfetcher.mapper.ProductMapper;
+import com.dbfetcher.models.ProductEntity;
+import com.dbfetcher.repository.ProductJdbcReader;
+import com.dbfetcher.repository.ProductRepository;
+import commonlibs.dto.ProductDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Read access to products for the fetch listeners.
+ * <p>
+ * Offers a single-row lookup and a set-based lookup that resolves many IDs with one query.
+ * <p>
+ * {@code fetcher.read-path} picks how rows are read: {@code jpa} (default) loads entities through
+ * {@link ProductRepository} and maps them, {@code jdbc} reads them into DTOs directly with
+ * {@link ProductJdbcReader}.
+ */
+@Slf4j
+@Service
+public class ProductQueryService {
+
+    private final ProductRepository repository;
+    private final ProductJdbcReader jdbcReader;
+    private final boolean jdbc;
+
+    public ProductQueryService(ProductRepository repository,
+                               ProductJdbcReader jdbcReader,
+                               @Value("${fetcher.read-path:jpa}") String readPath) {
+        this.repository = repository;
+        this.jdbcReader = jdbcReader;
+        this.jdbc = "jdbc".equalsIgnoreCase(readPath);
+        log.info("Product read path: {}", jdbc ? "jdbc" : "jpa");
+    }
+
+    /** Returns the product, or null if it does not exist. */
+    public ProductDTO findById(Long id) {
+        if (jdbc) {
+            return id != null ? jdbcReader.findById(id) : null;
+        }
+        return ProductMapper.toDTO(repository.findById(id).orElse(null));
+    }
+
+    /**
+     * Resolves all IDs with a single query.
+     *
+     * @return found products by ID; IDs that do not exist are absent from the map
+     */
+    public Map<Long, ProductDTO> findAllById(Collection<Long> ids) {
+        if (jdbc) {
+            return jdbcReader.findAllById(ids);
+        }
+        return repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ProductEntity::getId, ProductMapper::toDTO, (a, b) -> a));
+    }
+}
@@ -0,0 +1,90 @@
+package com.dbfetcher.listener;
+
+import com.dbfetcher.config.KafkaConfig;
+import com.dbfetcher.metrics.FetcherMetrics;
+import com.dbfetcher.service.ProductQueryService;
+import commonlibs.dto.ProductDTO;
+import commonlibs.kafka.codec.BinaryFetchCodec;
+import commonlibs.kafka.codec.FetchMessageSerializer;
+import commonlibs.kafka.messages.ProductFetchRequest;
+import commonlibs.kafka.messages.ProductFetchResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The default (record-by-record) listener must read fetch requests written in binary form, since
+ * {@code spring.kafka.binary-topics} may list "db.fetch.requests".
+ */
+class ProductFetchListenerTest {
+
+    private static final String TOPIC = "db.fetch.requests";
+
+    @Test
+    void defaultListenerUsesTheFactoryThatReadsBinaryRequests() throws NoSuchMethodException {
+        KafkaListener listener = ProductFetchListener.class
+                .getMethod("handleFetchRequest", ConsumerRecord.class)
+                .getAnnotation(KafkaListener.class);
+
+        assertThat(listener.containerFactory()).isEqualTo("requestListenerFactory");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void defaultListenerAnswersBinaryEncodedRequest() throws Exception {
+        byte[] payload = binarySerializer().serialize(TOPIC, new ProductFetchRequest("corr-1", 42L));
+        assertThat(BinaryFetchCodec.isBinary(payload)).isTrue();
+
+        ProductFetchRequest request = (ProductFetchRequest) requestListenerFactory().getConsumerFactory()
+                .getValueDeserializer().deserialize(TOPIC, payload);
+
+        ProductQueryService queryService = mock(ProductQueryService.class);
+        ProductDTO product = new ProductDTO();
+        product.setId(42L);
+        product.setName("Keyboard");
+        product.setPrice(new BigDecimal("79.90"));
+        when(queryService.findById(42L)).thenReturn(product);
+        KafkaTemplate<String, ProductFetchResponse> responses = mock(KafkaTemplate.class);
+        ProductFetchListener listener = new ProductFetchListener(queryService, responses,
+                mock(KafkaTemplate.class), new FetcherMetrics(new SimpleMeterRegistry()),
+                mock(KeyOrderedExecutor.class), new FetchDeduplicator(false, 0));
+
+        listener.handleFetchRequest(new ConsumerRecord<>(TOPIC, 0, 0L, "42", request));
+
+        ArgumentCaptor<ProducerRecord<String, ProductFetchResponse>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(responses).send(sent.capture());
+        assertThat(sent.getValue().topic()).isEqualTo("db.fetch.responses");
+        assertThat(sent.getValue().value().getCorrelationId()).isEqualTo("corr-1");
+        assertThat(sent.getValue().value().getProduct()).isSameAs(product);
+    }
+
+    private static FetchMessageSerializer<ProductFetchRequest> binarySerializer() {
+        FetchMessageSerializer<ProductFetchRequest> serializer = new FetchMessageSerializer<>();
+        serializer.configure(Map.of(FetchMessageSerializer.BINARY_TOPICS, TOPIC), false);
+        return serializer;
+    }
+
+    private static ConcurrentKafkaListenerContainerFactory<String, ProductFetchRequest> requestListenerFactory() {
+        KafkaConfig config = new KafkaConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+        ReflectionTestUtils.setField(config, "trustedPackages", "commonlibs.kafka.messages");
+        ConcurrentKafkaListenerContainerFactory<String, ProductFetchRequest> factory = config.requestListenerFactory();
+        assertThat(factory.getConsumerFactory()).isInstanceOf(DefaultKafkaConsumerFactory.class);
+        return factory;
+    }
+}
@@ -2,6 +2,7 @@ package com.orchestrator.config;
 
 import commonlibs.cache.policy.Policy;
 import commonlibs.kafka.config.KafkaCommonConfig;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -13,6 +14,8 @@ import org.springframework.kafka.core.KafkaTemplate;
  * - {@link Policy} objects
  * - plain String messages
  * <p>
+ * Also declares the compacted "cache.policy.updates" topic, created on startup through Boot's KafkaAdmin.
+ * <p>
  * Extends {@link KafkaCommonConfig} to reuse common Kafka configuration (e.g., serializers, producer factory).
  */
 @Configuration
@@ -39,4 +42,15 @@ public class KafkaConfig extends KafkaCommonConfig {
     public KafkaTemplate<String, String> stringKafkaTemplate() {
         return super.stringKafkaTemplate();
     }
+
+    /**
+     * The compacted "cache.policy.updates" topic, holding the latest runtime policy per namespace.
+     *
+     * @return topic definition created on startup if missing
+     */
+    @Bean
+    @Override
+    public NewTopic policyUpdatesTopic() {
+        return super.policyUpdatesTopic();
+    }
 }
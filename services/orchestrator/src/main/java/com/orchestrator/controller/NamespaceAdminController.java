@@ -8,7 +8,7 @@ import org.springframework.web.bind.annotation.*;
 /**
  * Administrative REST controller for managing cache namespaces and policies.
  * <p>
- * Exposes endpoints for updating cache policies and sending cache invalidation signals.
+ * Exposes endpoints for updating and removing cache policies and sending cache invalidation and warm-up signals.
  */
 @RestController
 @RequestMapping("/admin/namespaces")
@@ -45,6 +45,21 @@ public class NamespaceAdminController {
         return "Updated + published policy for namespace " + ns;
     }
 
+    /**
+     * Remove the runtime policy of a given namespace, returning it to its configured policy.
+     * <p>
+     * Updates the local registry and publishes a tombstone via Kafka to notify other services.
+     *
+     * @param ns Namespace identifier
+     * @return Confirmation message
+     */
+    @DeleteMapping("/{ns}/policy")
+    public String removePolicy(@PathVariable String ns) {
+        policyRegistry.removePolicy(ns);
+        publisher.publishPolicyRemoval(ns);
+        return "Removed + published policy removal for namespace " + ns;
+    }
+
     /**
      * Invalidate the cache for a given namespace.
      * <p>
@@ -58,4 +73,18 @@ public class NamespaceAdminController {
         publisher.publishCacheInvalidate(ns);
         return "Invalidate signal sent (and published to Kafka) for namespace " + ns;
     }
+
+    /**
+     * Warm the cache for a given namespace from the gateways' hot-key snapshots.
+     * <p>
+     * Useful after a Redis restart or flush. Use "*" to warm every namespace.
+     *
+     * @param ns Namespace identifier
+     * @return Confirmation message
+     */
+    @PostMapping("/{ns}/warmup")
+    public String warmUpNamespace(@PathVariable String ns) {
+        publisher.publishWarmup(ns);
+        return "Warm-up signal published to Kafka for namespace " + ns;
+    }
 }
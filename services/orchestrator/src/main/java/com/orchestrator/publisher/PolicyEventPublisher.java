@@ -8,8 +8,9 @@ import org.springframework.stereotype.Service;
  * Service responsible for publishing cache-related events over Kafka.
  * <p>
  * This includes:
- * - Policy updates for namespaces
+ * - Policy updates (and removals) for namespaces
  * - Cache invalidation signals for namespaces
+ * - Cache warm-up requests for namespaces
  */
 @Service
 public class PolicyEventPublisher {
@@ -42,6 +43,18 @@ public class PolicyEventPublisher {
         policyKafkaTemplate.send("cache.policy.updates", namespace, policy);
     }
 
+    /**
+     * Publishes the removal of a namespace's runtime policy.
+     * <p>
+     * Sends a null value (a tombstone) to "cache.policy.updates": gateways fall back to the configured
+     * policy, and compaction eventually drops the namespace from the topic.
+     *
+     * @param namespace The namespace whose runtime policy is removed
+     */
+    public void publishPolicyRemoval(String namespace) {
+        policyKafkaTemplate.send("cache.policy.updates", namespace, null);
+    }
+
     /**
      * Publishes a cache invalidation signal for the specified namespace.
      * <p>
@@ -53,4 +66,16 @@ public class PolicyEventPublisher {
     public void publishCacheInvalidate(String namespace) {
         stringKafkaTemplate.send("cache.namespace.invalidate", namespace);
     }
+
+    /**
+     * Publishes a warm-up request for the specified namespace.
+     * <p>
+     * A gateway listening to the "cache.namespace.warmup" topic replays its
+     * hot-key snapshot for this namespace into Redis.
+     *
+     * @param namespace The namespace to warm, or "*" for all namespaces
+     */
+    public void publishWarmup(String namespace) {
+        stringKafkaTemplate.send("cache.namespace.warmup", namespace);
+    }
 }